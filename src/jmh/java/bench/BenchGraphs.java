@@ -0,0 +1,32 @@
+package bench;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import graph.gen.GraphGenerator;
+
+import java.util.SplittableRandom;
+
+// Seeded benchmark graphs: ~20-vertex SCCs on 64 condensation levels
+final class BenchGraphs {
+    private BenchGraphs() {}
+
+    static CsrGraph random(int n, int avgDegree, long seed) {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = n;
+        s.m = (long) n * avgDegree;
+        s.sccCount = Math.max(1, n / 20);
+        s.depth = 64;
+        s.seed = seed;
+        return GraphGenerator.build(s);
+    }
+
+    // Layered DAG: `levels` levels of n/levels vertices, `outDegree` edges from each vertex into the next level
+    static CsrGraph wideDag(int n, int levels, int outDegree, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int width = n / levels;
+        DirectedGraph g = new DirectedGraph(n, n * outDegree);
+        for (int v = 0; v < width * (levels - 1); v++)
+            for (int k = 0; k < outDegree; k++) g.addEdge(v, (v / width + 1) * width + rnd.nextInt(width), 1 + rnd.nextInt(100));
+        return g.csr();
+    }
+}
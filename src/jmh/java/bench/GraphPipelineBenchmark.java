@@ -0,0 +1,116 @@
+package bench;
+
+import common.CsrGraph;
+import graph.dagsp.DagLongestPath;
+import graph.dagsp.DagShortestPaths;
+import graph.dagsp.LongDagLongestPath;
+import graph.dagsp.LongDagShortestPaths;
+import graph.dagsp.MultiSourceDagShortestPaths;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalSortKahn;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.Metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per pipeline phase, parameterised by graph size and density.
+ * Run with the GC profiler to get allocation rates:
+ *   java -jar target/benchmarks.jar GraphPipelineBenchmark -prof gc
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx4g"}) // WHY: recursive Tarjan needs a deep stack
+@State(Scope.Benchmark)
+public class GraphPipelineBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"2", "8"})
+    public int avgDegree;
+
+    private CsrGraph graph;
+    private TarjanSCC.Result scc;
+    private CsrGraph dagMin, dagMax;
+    private int source;
+    private int[] topo, sources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        graph = BenchGraphs.random(n, avgDegree, 42L);
+        scc = new IterativeTarjanSCC().compute(graph, new Metrics());
+        CondensationGraph.Result dags = CondensationGraph.build(graph, scc.compOf, scc.count());
+        dagMin = dags.min;
+        dagMax = dags.max;
+        source = scc.compOf[0];
+        topo = TopologicalSortKahn.orderArray(dagMin, new Metrics());
+        sources = new int[Math.min(64, dagMin.n())];
+        for (int i = 0; i < sources.length; i++) sources[i] = topo[i * (topo.length / sources.length)];
+    }
+
+    @Benchmark
+    public TarjanSCC.Result tarjanRecursive() {
+        return new TarjanSCC().compute(graph, new Metrics());
+    }
+
+    @Benchmark
+    public TarjanSCC.Result tarjanIterative() {
+        return new IterativeTarjanSCC().compute(graph, new Metrics());
+    }
+
+    @Benchmark
+    public CondensationGraph.Result condensation() {
+        return CondensationGraph.build(graph, scc.compOf, scc.count());
+    }
+
+    @Benchmark
+    public List<Integer> topoOrder() {
+        return TopologicalSortKahn.order(dagMin, new Metrics());
+    }
+
+    @Benchmark
+    public ParallelTopologicalSort.Result topoLevelsParallel() {
+        return new ParallelTopologicalSort().sort(dagMin, new Metrics());
+    }
+
+    @Benchmark
+    public void dagShortest(Blackhole bh) {
+        DagShortestPaths sp = new DagShortestPaths(dagMin, source);
+        sp.run(new Metrics());
+        bh.consume(sp);
+    }
+
+    @Benchmark
+    public void dagLongest(Blackhole bh) {
+        DagLongestPath lp = new DagLongestPath(dagMax, source);
+        lp.run(new Metrics());
+        bh.consume(lp.longestValue());
+    }
+
+    @Benchmark
+    public void dagShortestLong(Blackhole bh) {
+        LongDagShortestPaths sp = new LongDagShortestPaths(dagMin, source);
+        sp.run(new Metrics());
+        bh.consume(sp);
+    }
+
+    @Benchmark
+    public void dagLongestLong(Blackhole bh) {
+        LongDagLongestPath lp = new LongDagLongestPath(dagMax, source);
+        lp.run(new Metrics());
+        bh.consume(lp.longestValue());
+    }
+
+    @Benchmark
+    public MultiSourceDagShortestPaths.Result dagShortest64Sources() {
+        return new MultiSourceDagShortestPaths(dagMin, topo).run(sources, new Metrics());
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import common.CsrGraph;
+import graph.dagsp.IncrementalDagPaths;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSortKahn;
+import org.openjdk.jmh.annotations.*;
+import utils.Metrics;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of absorbing `changes` random edge-weight changes on the condensation DAG:
+ * incremental repair versus a full DP sweep over all n+m (what rerunning DagShortestPaths costs).
+ *   java -jar target/benchmarks.jar IncrementalDagPathsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class IncrementalDagPathsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"1", "16", "256"})
+    public int changes;
+
+    private int[] edgeSrc, edgeDst;
+    private int source;
+    private IncrementalDagPaths inc;
+    private SplittableRandom rnd;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CsrGraph g = BenchGraphs.random(n, 4, 42L);
+        TarjanSCC.Result scc = new IterativeTarjanSCC().compute(g, new Metrics());
+        CsrGraph dag = CondensationGraph.build(g, scc.compOf, scc.count()).min;
+        int[] topo = TopologicalSortKahn.orderArray(dag, new Metrics());
+        source = topo[0];
+        edgeSrc = new int[dag.m()];
+        edgeDst = new int[dag.m()];
+        for (int u = 0; u < dag.n(); u++)
+            for (int e = dag.begin(u); e < dag.end(u); e++) { edgeSrc[e] = u; edgeDst[e] = dag.target(e); }
+        inc = IncrementalDagPaths.shortest(dag, source);
+        rnd = new SplittableRandom(7);
+    }
+
+    private void applyChanges() {
+        for (int i = 0; i < changes; i++) {
+            int e = rnd.nextInt(edgeSrc.length);
+            inc.setWeight(edgeSrc[e], edgeDst[e], 1 + rnd.nextInt(100));
+        }
+    }
+
+    @Benchmark
+    public int incrementalRepair() {
+        applyChanges();
+        return inc.repair(new Metrics());
+    }
+
+    @Benchmark
+    public int fullRecompute() {
+        applyChanges();
+        // WHY: same changes, same adjacency — only the O(n+m) sweep replaces the repair
+        inc.recomputeAll(new Metrics());
+        return inc.distTo(source);
+    }
+}
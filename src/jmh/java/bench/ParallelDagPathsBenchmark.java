@@ -0,0 +1,59 @@
+package bench;
+
+import common.CsrGraph;
+import graph.dagsp.DagShortestPaths;
+import graph.dagsp.ParallelDagPaths;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalSortKahn;
+import org.openjdk.jmh.annotations.*;
+import utils.Metrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential push DP versus the level-by-level parallel pull on a wide DAG
+ * (2,000,000 components on 40 levels, 3 out-edges each), for several pool sizes.
+ *   java -jar target/benchmarks.jar ParallelDagPathsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelDagPathsBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private CsrGraph dag;
+    private int[] topo;
+    private ForkJoinPool pool;
+    private ParallelDagPaths parallel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dag = BenchGraphs.wideDag(2_000_000, 40, 3, 42L);
+        topo = TopologicalSortKahn.orderArray(dag, new Metrics());
+        pool = new ForkJoinPool(threads);
+        ParallelTopologicalSort.Result levels = new ParallelTopologicalSort(pool).sort(dag, new Metrics());
+        parallel = new ParallelDagPaths(dag, 0, false, topo, levels, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { pool.shutdown(); }
+
+    @Benchmark
+    public int sequential() {
+        DagShortestPaths sp = new DagShortestPaths(dag, 0, topo);
+        sp.run(new Metrics());
+        return sp.distTo(dag.n() - 1);
+    }
+
+    @Benchmark
+    public int parallelPull() {
+        parallel.run(new Metrics());
+        return parallel.distTo(dag.n() - 1);
+    }
+}
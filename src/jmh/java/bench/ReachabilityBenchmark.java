@@ -0,0 +1,94 @@
+package bench;
+
+import common.CsrGraph;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.ReachabilityIndex;
+import graph.topo.TopologicalSortKahn;
+import org.openjdk.jmh.annotations.*;
+import utils.Metrics;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1024 random task-to-task reachability queries per op: closure bitsets and GRAIL interval labels
+ * (ReachabilityIndex) versus a fresh BFS on the condensation DAG per query; plus the index build cost.
+ *   java -jar target/benchmarks.jar ReachabilityBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ReachabilityBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "400000"})
+    public int n;
+
+    private CsrGraph dag;
+    private int[] compOf, topo, from, to, mark, queue;
+    private int epoch;
+    private ReachabilityIndex closure, intervals;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CsrGraph g = BenchGraphs.random(n, 4, 42L);
+        TarjanSCC.Result scc = new IterativeTarjanSCC().compute(g, new Metrics());
+        dag = CondensationGraph.build(g, scc.compOf, scc.count()).min;
+        compOf = scc.compOf;
+        topo = TopologicalSortKahn.orderArray(dag, new Metrics());
+        closure = new ReachabilityIndex(dag, topo, Long.MAX_VALUE, 0, 1L, new Metrics());
+        intervals = new ReachabilityIndex(dag, topo, 0, ReachabilityIndex.DEFAULT_LABELS, 1L, new Metrics());
+        SplittableRandom rnd = new SplittableRandom(7);
+        from = new int[QUERIES]; to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) { from[i] = rnd.nextInt(n); to[i] = rnd.nextInt(n); }
+        mark = new int[dag.n()];
+        queue = new int[dag.n()];
+    }
+
+    @Benchmark
+    public int closureQueries() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) if (closure.reachesTask(compOf, from[i], to[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public int intervalQueries() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) if (intervals.reachesTask(compOf, from[i], to[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public int bfsQueries() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) if (bfs(compOf[from[i]], compOf[to[i]])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public long buildIntervals() {
+        return new ReachabilityIndex(dag, topo, 0, ReachabilityIndex.DEFAULT_LABELS, 1L, new Metrics()).bytes();
+    }
+
+    // Baseline: plain BFS with epoch marks (no per-query allocation), stopping at the target
+    private boolean bfs(int s, int t) {
+        if (s == t) return true;
+        int stamp = ++epoch, head = 0, tail = 0;
+        queue[tail++] = s; mark[s] = stamp;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                int v = dag.target(e);
+                if (v == t) return true;
+                if (mark[v] != stamp) { mark[v] = stamp; queue[tail++] = v; }
+            }
+        }
+        return false;
+    }
+}
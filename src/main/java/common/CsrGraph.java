@@ -0,0 +1,81 @@
+package common;
+
+/**
+ * Immutable compressed-sparse-row graph: offsets (n+1), targets (m), weights (m).
+ * Out-edges of u are stored contiguously, in the order they were added.
+ */
+public final class CsrGraph implements Graph {
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    public CsrGraph(int n, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != n + 1) throw new IllegalArgumentException("offsets must have n+1 entries");
+        if (targets.length < offsets[n] || weights.length < offsets[n])
+            throw new IllegalArgumentException("targets/weights shorter than offsets[n]");
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // STEP 1: build CSR from a flat edge list (counting sort by source keeps insertion order per vertex)
+    public static CsrGraph fromEdgeArrays(int n, int[] src, int[] dst, int[] w, int m) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            checkVertex(n, src[i]);
+            checkVertex(n, dst[i]);
+            offsets[src[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        // STEP 2: scatter targets/weights into their source bucket
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        for (int i = 0; i < m; i++) {
+            int p = next[src[i]]++;
+            targets[p] = dst[i];
+            weights[p] = w[i];
+        }
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    private static void checkVertex(int n, int v) {
+        if (v < 0 || v >= n) throw new IllegalArgumentException("Vertex " + v + " out of range [0," + n + ")");
+    }
+
+    // Reverse graph (in-edges become out-edges), weights preserved
+    public static CsrGraph transpose(Graph g) {
+        int n = g.n(), m = g.m();
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) offsets[g.target(e) + 1]++;
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                int p = next[g.target(e)]++;
+                targets[p] = u;
+                weights[p] = g.weight(e);
+            }
+        }
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    @Override public int n() { return n; }
+    @Override public int m() { return offsets[n]; }
+    @Override public int begin(int u) { return offsets[u]; }
+    @Override public int end(int u) { return offsets[u + 1]; }
+    @Override public int target(int e) { return targets[e]; }
+    @Override public int weight(int e) { return weights[e]; }
+
+    // Raw arrays for writers and builders that share topology (do not mutate)
+    public int[] offsets() { return offsets; }
+    public int[] targets() { return targets; }
+    public int[] weights() { return weights; }
+}
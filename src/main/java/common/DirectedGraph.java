@@ -2,32 +2,94 @@ package common;
 
 import java.util.*;
 
-public class DirectedGraph {
+/**
+ * Mutable graph builder backed by primitive edge arrays.
+ * Reads go through a CSR snapshot that is built on first use and dropped again by addEdge.
+ * Concurrent readers are safe (the freeze is double-checked under the instance lock, so parallel
+ * engines may receive an unfrozen builder); addEdge is not, and must not race with reads.
+ */
+public class DirectedGraph implements Graph {
     private final int n;
-    private final List<List<Edge>> adj;
-    private final List<Edge> edges;
+    private int m;
+    private int[] src, dst, w; // staging edge list (insertion order)
+    private volatile CsrGraph csr; // frozen view; staging arrays are released once it exists
+    // WHY: plain copy of csr for the accessors; CsrGraph's fields are final, so a racy read sees either null or a
+    // fully built view, and the JIT can hoist a plain field read out of an algorithm's inner loop
+    private CsrGraph view;
 
-    public DirectedGraph(int n) {
+    public DirectedGraph(int n) { this(n, 16); }
+
+    public DirectedGraph(int n, int expectedEdges) {
         this.n = n;
-        this.adj = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
-        this.edges = new ArrayList<>();
+        int cap = Math.max(expectedEdges, 4);
+        this.src = new int[cap];
+        this.dst = new int[cap];
+        this.w = new int[cap];
+    }
+
+    // Adopts the arrays without copying (used by loaders that already parsed into int arrays)
+    public static DirectedGraph wrap(int n, int[] src, int[] dst, int[] w, int m) {
+        DirectedGraph g = new DirectedGraph(n, 0);
+        g.src = src; g.dst = dst; g.w = w; g.m = m;
+        return g;
     }
 
-    public int n() { return n; }
+    @Override public int n() { return n; }
+    @Override public int m() { return m; }
 
-    public void addEdge(int u, int v, int w) {
-        Edge e = new Edge(u, v, w);
-        adj.get(u).add(e);
-        edges.add(e);
+    public void addEdge(int u, int v, int weight) {
+        if (csr != null) thaw();
+        if (m == src.length) {
+            int cap = src.length + (src.length >> 1) + 1;
+            src = Arrays.copyOf(src, cap);
+            dst = Arrays.copyOf(dst, cap);
+            w = Arrays.copyOf(w, cap);
+        }
+        src[m] = u; dst[m] = v; w[m] = weight;
+        m++;
     }
 
-    public List<Edge> neighbors(int u) { return adj.get(u); }
+    // STEP: freeze staging arrays into CSR (validates endpoints), then free the staging copy
+    public CsrGraph csr() {
+        CsrGraph c = view;
+        if (c != null) return c;
+        c = csr;
+        if (c == null) {
+            synchronized (this) {
+                // WHY: two ForkJoin workers may both see null; only one builds, the other must not read nulled staging arrays
+                if (csr == null) {
+                    csr = CsrGraph.fromEdgeArrays(n, src, dst, w, m);
+                    src = dst = w = null;
+                }
+                c = csr;
+            }
+        }
+        view = c;
+        return c;
+    }
+
+    // WHY: edges added after freezing are rare; unpack CSR back into staging arrays (grouped by source)
+    private void thaw() {
+        CsrGraph c = csr;
+        int cap = m + (m >> 1) + 4;
+        src = new int[cap]; dst = new int[cap]; w = new int[cap];
+        for (int u = 0; u < n; u++) {
+            for (int e = c.begin(u); e < c.end(u); e++) {
+                src[e] = u; dst[e] = c.target(e); w[e] = c.weight(e);
+            }
+        }
+        csr = null;
+        view = null;
+    }
 
-    public List<Edge> getEdges() { return edges; }
+    // Hot path: one plain field read once frozen; csr() is only taken on the first call
+    @Override public int begin(int u) { CsrGraph c = view; return (c != null ? c : csr()).begin(u); }
+    @Override public int end(int u) { CsrGraph c = view; return (c != null ? c : csr()).end(u); }
+    @Override public int target(int e) { CsrGraph c = view; return (c != null ? c : csr()).target(e); }
+    @Override public int weight(int e) { CsrGraph c = view; return (c != null ? c : csr()).weight(e); }
 
     public static DirectedGraph fromEdges(int n, List<Edge> edges) {
-        DirectedGraph g = new DirectedGraph(n);
+        DirectedGraph g = new DirectedGraph(n, edges.size());
         for (Edge e : edges) g.addEdge(e.u, e.v, e.w);
         return g;
     }
@@ -0,0 +1,33 @@
+package common;
+
+import java.io.IOException;
+
+/**
+ * A graph that can only be read as a sequence of edges, one full pass at a time (e.g. a file larger than
+ * the heap). Only n is known up front; algorithms on it keep O(n) state and pay one scan per pass.
+ */
+public interface EdgeStream {
+    // Receives each edge of one pass, in stream order
+    interface Sink {
+        void edge(int u, int v, int w);
+    }
+
+    int n();
+
+    long m();
+
+    // One sequential pass over every edge
+    void scan(Sink sink) throws IOException;
+
+    // In-memory adapter (tests, and graphs that already fit): edges in CSR order
+    static EdgeStream of(Graph g) {
+        return new EdgeStream() {
+            @Override public int n() { return g.n(); }
+            @Override public long m() { return g.m(); }
+            @Override public void scan(Sink sink) {
+                for (int u = 0; u < g.n(); u++)
+                    for (int e = g.begin(u), end = g.end(u); e < end; e++) sink.edge(u, g.target(e), g.weight(e));
+            }
+        };
+    }
+}
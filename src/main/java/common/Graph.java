@@ -0,0 +1,37 @@
+package common;
+
+import java.util.*;
+
+/**
+ * Read-only view of a weighted directed graph in compressed-sparse-row form.
+ * Out-edges of u are the edge ids in [begin(u), end(u)); target/weight are looked up by edge id,
+ * so traversals never allocate Edge objects.
+ */
+public interface Graph {
+    int n();
+
+    int m();
+
+    int begin(int u);
+
+    int end(int u);
+
+    int target(int e);
+
+    int weight(int e);
+
+    default int outDegree(int u) { return end(u) - begin(u); }
+
+    // Convenience views (allocate Edge objects) — fine for tests and printing, not for hot loops
+    default List<Edge> neighbors(int u) {
+        List<Edge> out = new ArrayList<>(outDegree(u));
+        for (int e = begin(u); e < end(u); e++) out.add(new Edge(u, target(e), weight(e)));
+        return out;
+    }
+
+    default List<Edge> getEdges() {
+        List<Edge> out = new ArrayList<>(m());
+        for (int u = 0; u < n(); u++) out.addAll(neighbors(u));
+        return out;
+    }
+}
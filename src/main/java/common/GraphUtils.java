@@ -7,9 +7,9 @@ public class GraphUtils {
         return true;
     }
 
-    public static int[] indegrees(DirectedGraph g) {
+    public static int[] indegrees(Graph g) {
         int[] indeg = new int[g.n()];
-        for (Edge e : g.getEdges()) indeg[e.v]++;
+        for (int e = 0, m = g.m(); e < m; e++) indeg[g.target(e)]++;
         return indeg;
     }
 }
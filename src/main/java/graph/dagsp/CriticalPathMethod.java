@@ -0,0 +1,151 @@
+package graph.dagsp;
+
+import common.Graph;
+import common.GraphUtils;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * Critical path method over a DAG whose edge weights are durations (usually the max condensation DAG).
+ *
+ * One forward pass in topological order gives the earliest time of every vertex (longest path from the
+ * start), one backward pass over the same order the latest time that still meets the project duration;
+ * slack = latest - earliest. Zero-slack vertices and edges form every critical path, not just the one
+ * DagLongestPath reconstructs. Times are longs, so long chains of large weights cannot overflow.
+ *
+ * The start is either every vertex without predecessors (source = -1) or one source vertex; vertices the
+ * start cannot reach are left out of the schedule (UNREACHED).
+ *
+ * With node weights (weight_model "node") the vertices are the activities: v starts once every
+ * predecessor has finished, earliest/latest are start times, and edge weights are ignored.
+ */
+public class CriticalPathMethod {
+    public static final long UNREACHED = Long.MIN_VALUE;
+
+    public static class Result {
+        public final long[] earliest, latest, slack; // UNREACHED for vertices outside the schedule
+        public final long duration;                  // project length (0 if nothing is scheduled)
+        public final int[] criticalComponents;       // zero-slack vertices in topological order
+        public final int[] criticalEdgeFrom, criticalEdgeTo;
+
+        Result(long[] earliest, long[] latest, long[] slack, long duration,
+               int[] criticalComponents, int[] criticalEdgeFrom, int[] criticalEdgeTo) {
+            this.earliest = earliest; this.latest = latest; this.slack = slack; this.duration = duration;
+            this.criticalComponents = criticalComponents;
+            this.criticalEdgeFrom = criticalEdgeFrom; this.criticalEdgeTo = criticalEdgeTo;
+        }
+
+        public boolean isCritical(int c) { return slack[c] == 0; }
+
+        // What-if: project length if component c is held up by `delay` (exact, no rerun needed)
+        public long durationIfDelayed(int c, long delay) {
+            if (slack[c] == UNREACHED) return duration;
+            return Math.max(duration, duration - slack[c] + delay);
+        }
+
+        // ----- original tasks, through the SCC mapping -----
+
+        public long taskEarliest(int task, int[] compOf) { return earliest[compOf[task]]; }
+
+        public long taskSlack(int task, int[] compOf) { return slack[compOf[task]]; }
+
+        // Tasks of all critical components, grouped by component in topological order
+        public int[] criticalTasks(TarjanSCC.Result scc) {
+            int total = 0;
+            for (int c : criticalComponents) total += scc.size(c);
+            int[] tasks = new int[total];
+            int p = 0;
+            for (int c : criticalComponents)
+                for (int i = scc.compStart[c]; i < scc.compStart[c + 1]; i++) tasks[p++] = scc.members[i];
+            return tasks;
+        }
+    }
+
+    private final Graph g;
+    private final int[] topo;
+    private final int[] nodeW; // null → edge durations
+
+    public CriticalPathMethod(Graph dag) { this(dag, null, null); }
+
+    // Reuses a topological order of dag computed once by the caller
+    public CriticalPathMethod(Graph dag, int[] topo) { this(dag, topo, null); }
+
+    public CriticalPathMethod(Graph dag, int[] topo, int[] nodeWeights) {
+        if (topo != null && topo.length != dag.n()) throw new IllegalArgumentException("Topological order must cover all " + dag.n() + " vertices");
+        if (nodeWeights != null && nodeWeights.length != dag.n()) throw new IllegalArgumentException("Need one node weight per vertex");
+        this.g = dag;
+        this.topo = topo != null ? topo : TopologicalSortKahn.orderArray(dag, new Metrics());
+        this.nodeW = nodeWeights;
+    }
+
+    // Time from the start of u to the start of v along u→v: the edge's duration, or u's own in the node model
+    private long cost(int u, int e) { return nodeW != null ? nodeW[u] : g.weight(e); }
+
+    private long own(int u) { return nodeW != null ? nodeW[u] : 0; }
+
+    public Result compute(Metrics metrics) { return compute(-1, metrics); }
+
+    public Result compute(int source, Metrics metrics) {
+        int n = g.n();
+        long[] es = new long[n], ls = new long[n], slack = new long[n];
+        Arrays.fill(es, UNREACHED);
+
+        metrics.start();
+        // STEP 1: start times — every vertex without predecessors, or just the given source
+        if (source >= 0) es[source] = 0;
+        else {
+            int[] indeg = GraphUtils.indegrees(g);
+            for (int v = 0; v < n; v++) if (indeg[v] == 0) es[v] = 0;
+        }
+
+        // STEP 2: forward pass → earliest times (longest path from the start)
+        long duration = 0;
+        for (int u : topo) {
+            if (es[u] == UNREACHED) continue; // EDGE: outside the schedule
+            if (es[u] + own(u) > duration) duration = es[u] + own(u);
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                long t = es[u] + cost(u, e);
+                if (t > es[v]) { es[v] = t; if (Metrics.ENABLED) metrics.relaxations++; }
+            }
+        }
+
+        // STEP 3: backward pass over the same order → latest times; sinks must finish by `duration`
+        // WHY: every successor of a scheduled vertex is scheduled too, so no reachability check is needed
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topo[i];
+            if (es[u] == UNREACHED) { ls[u] = slack[u] = UNREACHED; continue; }
+            long late = Long.MAX_VALUE;
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                long t = ls[g.target(e)] - cost(u, e);
+                if (t < late) late = t;
+                if (Metrics.ENABLED) metrics.relaxations++;
+            }
+            ls[u] = late == Long.MAX_VALUE ? duration - own(u) : late;
+            slack[u] = ls[u] - es[u];
+        }
+
+        // STEP 4: zero-slack vertices and tight edges between them
+        int nc = 0;
+        for (int u : topo) if (slack[u] == 0) nc++;
+        int[] crit = new int[nc];
+        nc = 0;
+        int[] from = new int[16], to = new int[16];
+        int ne = 0;
+        for (int u : topo) {
+            if (slack[u] != 0) continue;
+            crit[nc++] = u;
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                if (slack[v] != 0 || es[u] + cost(u, e) != es[v]) continue; // WHY: edge slack must be zero too
+                if (ne == from.length) { from = Arrays.copyOf(from, ne * 2); to = Arrays.copyOf(to, ne * 2); }
+                from[ne] = u; to[ne++] = v;
+            }
+        }
+        metrics.stop();
+        return new Result(es, ls, slack, duration, crit, Arrays.copyOf(from, ne), Arrays.copyOf(to, ne));
+    }
+}
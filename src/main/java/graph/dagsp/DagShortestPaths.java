@@ -1,20 +1,33 @@
 package graph.dagsp;
 
-import common.DirectedGraph;
-import common.Edge;
+import common.Graph;
 import utils.Metrics;
 import graph.topo.TopologicalSortKahn;
 
 import java.util.*;
 
 public class DagShortestPaths {
-    private final DirectedGraph g;
+    private final Graph g;
     private final int source;
     private final int[] dist;
     private final int[] prev;
+    private int[] topo; // null → computed on the first run
+    private final int[] nodeW; // node-weight model: path cost = sum of vertex weights, edge weights ignored
 
-    public DagShortestPaths(DirectedGraph g, int source) {
-        this.g = g; this.source = source;
+    public DagShortestPaths(Graph g, int source) {
+        this(g, source, null);
+    }
+
+    // Reuses a topological order of g computed once by the caller (e.g. TopologicalSortKahn.orderArray)
+    public DagShortestPaths(Graph g, int source, int[] topo) {
+        this(g, source, topo, null);
+    }
+
+    // Node-weighted DP straight on g: entering v costs nodeWeights[v] (no split-node graph is built)
+    public DagShortestPaths(Graph g, int source, int[] topo, int[] nodeWeights) {
+        if (nodeWeights != null && nodeWeights.length != g.n()) throw new IllegalArgumentException("Need one node weight per vertex");
+        if (topo != null && topo.length != g.n()) throw new IllegalArgumentException("Topological order must cover all " + g.n() + " vertices");
+        this.g = g; this.source = source; this.topo = topo; this.nodeW = nodeWeights;
         this.dist = new int[g.n()];
         this.prev = new int[g.n()];
         // STEP 0: initialize DP table
@@ -26,22 +39,22 @@ public class DagShortestPaths {
     public void run(Metrics metrics) {
         // STEP 1: compute topological order (required for DAG SSSP)
         // WHY: when processing u, all predecessors already finalized → safe relaxations
-        List<Integer> topo = TopologicalSortKahn.order(g, new Metrics()); // separate metrics for topo phase
+        if (topo == null) topo = TopologicalSortKahn.orderArray(g, new Metrics()); // separate metrics for topo phase
 
         metrics.start();
         // STEP 2: seed source distance
-        dist[source] = 0;
+        dist[source] = nodeW != null ? nodeW[source] : 0; // WHY: in the node model the source's own duration counts
 
         // STEP 3: relax edges in topo order (classic DAG SSSP)
         for (int u : topo) {
             if (dist[u] == Integer.MAX_VALUE/4) continue; // EDGE: unreachable so far → skip
-            for (Edge e : g.neighbors(u)) {
-                int v = e.v;
-                int nd = dist[u] + e.w;   // candidate distance via u
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                int nd = dist[u] + (nodeW != null ? nodeW[v] : g.weight(e));   // candidate distance via u
                 if (nd < dist[v]) {
                     dist[v] = nd;
                     prev[v] = u;
-                    metrics.relaxations++; // METRICS: count successful relax
+                    if (Metrics.ENABLED) metrics.relaxations++; // METRICS: count successful relax
                 }
             }
         }
@@ -58,4 +71,10 @@ public class DagShortestPaths {
         for (int x = v; x != -1; x = prev[x]) path.addFirst(x); // WHY: prev[] is a back-pointer chain
         return path;
     }
-}
\ No newline at end of file
+
+    // Same path as an int[] (no boxing); empty if v is unreachable
+    public int[] pathArray(int v) { return pathTree().pathTo(v); }
+
+    // Predecessor tree of the last run: every path from the source at once, sharing prefixes
+    public PathTree pathTree() { return new PathTree(source, prev); }
+}
@@ -0,0 +1,301 @@
+package graph.dagsp;
+
+import common.Graph;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * Single-source shortest or longest paths on a DAG that stay valid across edge updates.
+ *
+ * dist[] and prev[] are kept between updates. setWeight / addEdge / removeEdge only record the head
+ * vertex whose incoming edges changed; repair() then pulls those vertices in topological position order
+ * (a min-heap on position) and recomputes each one from its in-edges, pushing its successors only when
+ * its value or predecessor actually changed. Vertices outside that downstream suffix are never touched,
+ * and a batch of updates is repaired in one pass.
+ *
+ * An insertion that breaks the current order is fixed with a Pearce–Kelly reorder of the affected
+ * region; an insertion that would close a cycle is rejected.
+ */
+public class IncrementalDagPaths {
+    public static final int INF = Integer.MAX_VALUE / 4;     // unreachable (shortest)
+    public static final int NEG_INF = Integer.MIN_VALUE / 4; // unreachable (longest)
+
+    private final int n, source;
+    private final boolean longest;
+    private final int unreached;
+
+    private final int[][] outT, outW, inS, inW;
+    private final int[] outDeg, inDeg;
+    private final int[] pos, order; // position of each vertex / vertex at each position
+
+    private final int[] dist, prev;
+
+    // vertices whose in-edges changed since the last repair
+    private final boolean[] dirty;
+    private int[] pending = new int[16];
+    private int npending;
+
+    // scratch for repair (heap) and PK searches
+    private final int[] heap;
+    private final boolean[] inHeap;
+    private final int[] mark, stack;
+    private int epoch;
+
+    public static IncrementalDagPaths shortest(Graph dag, int source) { return new IncrementalDagPaths(dag, source, false); }
+    public static IncrementalDagPaths longest(Graph dag, int source) { return new IncrementalDagPaths(dag, source, true); }
+
+    public IncrementalDagPaths(Graph dag, int source, boolean longest) {
+        this.n = dag.n(); this.source = source; this.longest = longest;
+        this.unreached = longest ? NEG_INF : INF;
+        outT = new int[n][]; outW = new int[n][]; inS = new int[n][]; inW = new int[n][];
+        outDeg = new int[n]; inDeg = new int[n];
+        int[] indeg = new int[n];
+        for (int e = 0; e < dag.m(); e++) indeg[dag.target(e)]++;
+        for (int u = 0; u < n; u++) {
+            int d = Math.max(dag.end(u) - dag.begin(u), 2);
+            outT[u] = new int[d]; outW[u] = new int[d];
+            inS[u] = new int[Math.max(indeg[u], 2)]; inW[u] = new int[Math.max(indeg[u], 2)];
+        }
+        for (int u = 0; u < n; u++)
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) link(u, dag.target(e), dag.weight(e));
+
+        // STEP 0: positions from Kahn's order (throws if the input is not a DAG)
+        order = TopologicalSortKahn.orderArray(dag, new Metrics());
+        pos = new int[n];
+        for (int i = 0; i < n; i++) pos[order[i]] = i;
+
+        dist = new int[n]; prev = new int[n];
+        dirty = new boolean[n];
+        heap = new int[n]; inHeap = new boolean[n];
+        mark = new int[n]; stack = new int[n];
+        recomputeAll(new Metrics());
+    }
+
+    // Full DP in position order (same relaxation rule as DagShortestPaths / DagLongestPath)
+    public void recomputeAll(Metrics metrics) {
+        metrics.start();
+        Arrays.fill(dist, unreached);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        for (int u : order) {
+            if (dist[u] == unreached) continue;
+            for (int i = 0; i < outDeg[u]; i++) {
+                int v = outT[u][i], nd = dist[u] + outW[u][i];
+                if (better(nd, dist[v])) { dist[v] = nd; prev[v] = u; if (Metrics.ENABLED) metrics.relaxations++; }
+            }
+        }
+        for (int i = 0; i < npending; i++) dirty[pending[i]] = false;
+        npending = 0;
+        metrics.stop();
+    }
+
+    // ---------- updates (applied lazily by repair) ----------
+
+    // Changes the weight of one u→v edge; false if there is none
+    public boolean setWeight(int u, int v, int w) {
+        int i = indexOf(outT[u], outDeg[u], v);
+        if (i < 0) return false;
+        int j = inIndex(u, v, outW[u][i]);
+        outW[u][i] = w; inW[v][j] = w;
+        markDirty(v);
+        return true;
+    }
+
+    public void addEdge(int u, int v, int w) {
+        if (u == v) throw new IllegalArgumentException("Self-loop would create a cycle: " + u);
+        if (pos[u] > pos[v]) reorder(u, v); // EDGE: order must be fixed before the edge exists
+        link(u, v, w);
+        markDirty(v);
+    }
+
+    // Removes one u→v edge; false if there is none
+    public boolean removeEdge(int u, int v) {
+        int i = indexOf(outT[u], outDeg[u], v);
+        if (i < 0) return false;
+        int j = inIndex(u, v, outW[u][i]);
+        int last = --outDeg[u];
+        outT[u][i] = outT[u][last]; outW[u][i] = outW[u][last];
+        last = --inDeg[v];
+        inS[v][j] = inS[v][last]; inW[v][j] = inW[v][last];
+        markDirty(v);
+        return true;
+    }
+
+    public boolean hasPendingUpdates() { return npending > 0; }
+
+    /**
+     * Repairs dist[]/prev[] for every update since the last repair; returns the number of vertices recomputed.
+     * METRICS: topoPops = vertices pulled, edgesVisited = in-edges scanned, relaxations = vertices whose
+     * value or predecessor changed; the whole repair is one recordUpdate sample.
+     */
+    public int repair(Metrics metrics) {
+        if (npending == 0) return 0;
+        long t0 = System.nanoTime();
+        metrics.start();
+
+        // STEP 1: seed the heap with the dirty heads
+        int size = 0;
+        for (int i = 0; i < npending; i++) {
+            int v = pending[i];
+            dirty[v] = false;
+            size = push(v, size);
+        }
+        npending = 0;
+
+        // STEP 2: pull vertices in position order; only changed vertices wake their successors
+        int pulled = 0;
+        while (size > 0) {
+            int v = heap[0];
+            size = pop(size);
+            pulled++;
+            if (Metrics.ENABLED) metrics.topoPops++;
+            int best = unreached, arg = -1;
+            if (v == source) best = 0;
+            else {
+                for (int i = 0; i < inDeg[v]; i++) {
+                    int p = inS[v][i];
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                    if (dist[p] == unreached) continue;
+                    int nd = dist[p] + inW[v][i];
+                    // WHY: ties go to the earlier predecessor, as in a full DP sweep
+                    if (arg == -1 || better(nd, best) || (nd == best && pos[p] < pos[arg])) { best = nd; arg = p; }
+                }
+            }
+            if (best == dist[v] && arg == prev[v]) continue;
+            dist[v] = best; prev[v] = arg;
+            if (Metrics.ENABLED) metrics.relaxations++;
+            for (int i = 0; i < outDeg[v]; i++) size = push(outT[v][i], size);
+        }
+
+        metrics.stop();
+        metrics.recordUpdate(System.nanoTime() - t0);
+        return pulled;
+    }
+
+    // ---------- queries (repair first if needed) ----------
+
+    public int distTo(int v) {
+        if (npending > 0) repair(new Metrics());
+        return dist[v];
+    }
+
+    public int[] distances() {
+        if (npending > 0) repair(new Metrics());
+        return dist.clone();
+    }
+
+    public List<Integer> pathTo(int v) {
+        if (distTo(v) == unreached) return Collections.emptyList(); // EDGE: unreachable → empty path
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int x = v; x != -1; x = prev[x]) path.addFirst(x);
+        return path;
+    }
+
+    public int position(int v) { return pos[v]; }
+
+    // ---------- internals ----------
+
+    private boolean better(int a, int b) { return longest ? a > b : a < b; }
+
+    private void markDirty(int v) {
+        if (dirty[v]) return;
+        dirty[v] = true;
+        if (npending == pending.length) pending = Arrays.copyOf(pending, npending << 1);
+        pending[npending++] = v;
+    }
+
+    // Pearce–Kelly: u→v with pos[u] > pos[v]; moves the backward region of u before the forward region of v
+    private void reorder(int u, int v) {
+        int lb = pos[v], ub = pos[u];
+
+        // STEP 1: forward from v over positions < ub; reaching u means a cycle
+        int fe = ++epoch, nf = 0, sp = 0;
+        int[] fwd = new int[16];
+        mark[v] = fe; stack[sp++] = v;
+        while (sp > 0) {
+            int x = stack[--sp];
+            if (nf == fwd.length) fwd = Arrays.copyOf(fwd, nf << 1);
+            fwd[nf++] = pos[x];
+            for (int i = 0; i < outDeg[x]; i++) {
+                int y = outT[x][i];
+                if (y == u) throw new IllegalArgumentException("Edge " + u + "->" + v + " would create a cycle");
+                if (mark[y] != fe && pos[y] < ub) { mark[y] = fe; stack[sp++] = y; }
+            }
+        }
+
+        // STEP 2: backward from u over positions > lb
+        int be = ++epoch, nb = 0;
+        int[] bwd = new int[16];
+        mark[u] = be; stack[sp++] = u;
+        while (sp > 0) {
+            int x = stack[--sp];
+            if (nb == bwd.length) bwd = Arrays.copyOf(bwd, nb << 1);
+            bwd[nb++] = pos[x];
+            for (int i = 0; i < inDeg[x]; i++) {
+                int y = inS[x][i];
+                if (mark[y] != be && pos[y] > lb) { mark[y] = be; stack[sp++] = y; }
+            }
+        }
+
+        // STEP 3: pool the positions; B takes the lowest, F the highest, each keeping its inner order
+        Arrays.sort(fwd, 0, nf);
+        Arrays.sort(bwd, 0, nb);
+        int[] slots = new int[nf + nb], verts = new int[nf + nb];
+        for (int i = 0; i < nb; i++) { slots[i] = bwd[i]; verts[i] = order[bwd[i]]; }
+        for (int i = 0; i < nf; i++) { slots[nb + i] = fwd[i]; verts[nb + i] = order[fwd[i]]; }
+        Arrays.sort(slots);
+        for (int i = 0; i < slots.length; i++) { pos[verts[i]] = slots[i]; order[slots[i]] = verts[i]; }
+    }
+
+    private void link(int u, int v, int w) {
+        if (outDeg[u] == outT[u].length) { outT[u] = Arrays.copyOf(outT[u], outDeg[u] << 1); outW[u] = Arrays.copyOf(outW[u], outDeg[u] << 1); }
+        outT[u][outDeg[u]] = v; outW[u][outDeg[u]++] = w;
+        if (inDeg[v] == inS[v].length) { inS[v] = Arrays.copyOf(inS[v], inDeg[v] << 1); inW[v] = Arrays.copyOf(inW[v], inDeg[v] << 1); }
+        inS[v][inDeg[v]] = u; inW[v][inDeg[v]++] = w;
+    }
+
+    private static int indexOf(int[] a, int len, int x) {
+        for (int i = 0; i < len; i++) if (a[i] == x) return i;
+        return -1;
+    }
+
+    // WHY: with parallel edges the in-list entry must match the weight, not just the source
+    private int inIndex(int u, int v, int w) {
+        int j = 0;
+        while (inS[v][j] != u || inW[v][j] != w) j++;
+        return j;
+    }
+
+    // Binary min-heap of vertices keyed by pos[]; inHeap[] suppresses duplicates
+    private int push(int v, int size) {
+        if (inHeap[v]) return size;
+        inHeap[v] = true;
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (pos[heap[parent]] <= pos[v]) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+        return size;
+    }
+
+    private int pop(int size) {
+        inHeap[heap[0]] = false;
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= size) break;
+            if (c + 1 < size && pos[heap[c + 1]] < pos[heap[c]]) c++;
+            if (pos[heap[c]] >= pos[last]) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        if (size > 0) heap[i] = last;
+        return size;
+    }
+}
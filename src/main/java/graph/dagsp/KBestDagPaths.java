@@ -0,0 +1,291 @@
+package graph.dagsp;
+
+import common.Graph;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * K shortest or K longest source paths on a DAG, enumerated lazily in order (recursive enumeration,
+ * Jiménez–Marzal style).
+ *
+ * run() does the usual DP and stores the best path of every vertex as (value, in-edge, rank of the path
+ * at the tail). The k-th path of v is found on demand: v keeps a heap with at most one candidate per
+ * in-edge (u, j) = "u's j-th path + edge"; popping it yields v's next path and replaces it by (u, j+1),
+ * which in turn asks u for one more path. Only the prefixes that are actually needed are ever built, so
+ * K paths to one target cost O(K · depth · log indegree) time and memory, not O(K · n).
+ *
+ * Paths are stored in primitive per-vertex arrays. Stored paths and candidates count against a byte cap;
+ * a request that would exceed it fails with IllegalStateException instead of exhausting the heap.
+ */
+public class KBestDagPaths {
+    public static final int ANY_SINK = -1;                  // target: paths ending at any vertex without out-edges
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+    private static final int ENTRY_BYTES = 16;              // long value + int in-edge + int rank
+
+    // One path from the source, best first; value is its length (sum of weights)
+    public static final class Path {
+        public final long value;
+        public final int[] vertices;
+        Path(long value, int[] vertices) { this.value = value; this.vertices = vertices; }
+
+        @Override public String toString() { return value + " " + Arrays.toString(vertices); }
+    }
+
+    private final Graph g;
+    private final int n, source;
+    private final boolean longest;
+    private final long maxBytes;
+    private long bytes;
+    private int[] topo; // null → computed on the first run
+    private boolean ran;
+
+    // In-edges grouped by head; vertex n is a virtual sink fed by every real sink (weight 0)
+    private final int[] inStart, inFrom;
+    private final long[] inCost; // edge weight, or the head's node weight in the node model
+    private final long sourceCost;
+
+    // Paths found so far at each vertex, best first: value, in-edge (-1 = source) and rank at the tail
+    private final long[][] val;
+    private final int[][] viaE, viaK;
+    private final int[] count;
+    private final boolean[] exhausted;
+
+    // Candidate heaps (null until v's second path is requested) and the one deferred (edge, rank)
+    private final long[][] hVal;
+    private final int[][] hE, hK;
+    private final int[] hSize, pendE, pendK;
+    private final int[] stack;
+
+    public static KBestDagPaths shortest(Graph dag, int source) { return new KBestDagPaths(dag, source, false, null, null, DEFAULT_MAX_BYTES); }
+    public static KBestDagPaths longest(Graph dag, int source) { return new KBestDagPaths(dag, source, true, null, null, DEFAULT_MAX_BYTES); }
+
+    /**
+     * @param topo        topological order of dag (null → TopologicalSortKahn.orderArray on the first run)
+     * @param nodeWeights node-weight model (entering v costs nodeWeights[v]) or null for edge weights
+     * @param maxBytes    cap on stored paths and candidates, in bytes
+     */
+    public KBestDagPaths(Graph dag, int source, boolean longest, int[] topo, int[] nodeWeights, long maxBytes) {
+        int n = dag.n();
+        if (nodeWeights != null && nodeWeights.length != n) throw new IllegalArgumentException("Need one node weight per vertex");
+        if (topo != null && topo.length != n) throw new IllegalArgumentException("Topological order must cover all " + n + " vertices");
+        this.g = dag; this.n = n; this.source = source; this.longest = longest; this.topo = topo; this.maxBytes = maxBytes;
+        this.sourceCost = nodeWeights != null ? nodeWeights[source] : 0;
+
+        // STEP 0: in-edge CSR (counting sort by head), plus sink → virtual vertex n
+        inStart = new int[n + 2];
+        int sinks = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) inStart[dag.target(e) + 1]++;
+            if (dag.begin(u) == dag.end(u)) sinks++;
+        }
+        inStart[n + 1] = sinks;
+        for (int v = 0; v <= n; v++) inStart[v + 1] += inStart[v];
+        inFrom = new int[inStart[n + 1]];
+        inCost = new long[inFrom.length];
+        int[] fill = Arrays.copyOf(inStart, n + 1);
+        for (int u = 0; u < n; u++) {
+            if (dag.begin(u) == dag.end(u)) { inFrom[fill[n]++] = u; continue; } // cost 0
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                int v = dag.target(e), i = fill[v]++;
+                inFrom[i] = u;
+                inCost[i] = nodeWeights != null ? nodeWeights[v] : dag.weight(e);
+            }
+        }
+
+        val = new long[n + 1][]; viaE = new int[n + 1][]; viaK = new int[n + 1][];
+        count = new int[n + 1];
+        exhausted = new boolean[n + 1];
+        hVal = new long[n + 1][]; hE = new int[n + 1][]; hK = new int[n + 1][];
+        hSize = new int[n + 1]; pendE = new int[n + 1]; pendK = new int[n + 1];
+        stack = new int[n + 1];
+    }
+
+    // Best path of every vertex (plain DP, pulled over in-edges); the lazy enumeration starts from these
+    public void run(Metrics metrics) {
+        if (topo == null) topo = TopologicalSortKahn.orderArray(g, new Metrics());
+        metrics.start();
+        int[] rank = new int[n + 1];
+        for (int i = 0; i < n; i++) rank[topo[i]] = i;
+        for (int i = 0; i <= n; i++) {
+            int v = i < n ? topo[i] : n;
+            if (v == source) { record(v, sourceCost, -1, 0); continue; }
+            long best = 0;
+            int arg = -1;
+            for (int e = inStart[v]; e < inStart[v + 1]; e++) {
+                int u = inFrom[e];
+                if (Metrics.ENABLED) metrics.edgesVisited++;
+                if (count[u] == 0) continue; // EDGE: tail unreachable
+                long nd = val[u][0] + inCost[e];
+                // WHY: ties go to the tail that comes first in topo order, as in the push DP
+                if (arg == -1 || better(nd, best) || (nd == best && rank[u] < rank[inFrom[arg]])) { best = nd; arg = e; }
+            }
+            if (arg == -1) exhausted[v] = true;
+            else { record(v, best, arg, 0); if (Metrics.ENABLED) metrics.relaxations++; }
+        }
+        metrics.stop();
+        ran = true;
+    }
+
+    // ---------- queries ----------
+
+    // Paths from the source to target (or ANY_SINK) in order, each computed when next() is called
+    public Iterator<Path> paths(int target) {
+        if (!ran) run(new Metrics());
+        int t = target == ANY_SINK ? n : target;
+        return new Iterator<Path>() {
+            int k = 0;
+            @Override public boolean hasNext() { return ensure(t, k); }
+            @Override public Path next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return build(t, k++);
+            }
+        };
+    }
+
+    // Up to k best paths, best first (fewer if the DAG has fewer)
+    public List<Path> best(int target, int k) {
+        List<Path> out = new ArrayList<>();
+        Iterator<Path> it = paths(target);
+        while (out.size() < k && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    public long bytesUsed() { return bytes; }
+
+    // ---------- enumeration ----------
+
+    private boolean better(long a, long b) { return longest ? a > b : a < b; }
+
+    // Makes sure path k of t exists if there is one; dependencies are resolved on an explicit stack
+    private boolean ensure(int t, int k) {
+        while (count[t] <= k && !exhausted[t]) {
+            int sp = 0;
+            stack[sp++] = t;
+            while (sp > 0) {
+                int r = advance(stack[sp - 1]);
+                if (r < 0) stack[sp++] = -r - 1; // WHY: a predecessor sits earlier in topo order, so no vertex repeats
+                else sp--;
+            }
+        }
+        return count[t] > k;
+    }
+
+    // One more path at x: 1 = found, 0 = none left, -(u+1) = u must produce its next path first
+    private int advance(int x) {
+        if (hE[x] == null) initCandidates(x);
+        int e = pendE[x];
+        if (e >= 0) {
+            int u = inFrom[e], j = pendK[x];
+            if (count[u] <= j && !exhausted[u]) return -(u + 1);
+            if (count[u] > j) push(x, val[u][j] + inCost[e], e, j);
+            pendE[x] = -1;
+        }
+        if (hSize[x] == 0) { exhausted[x] = true; return 0; }
+        reserve(x);
+        long value = hVal[x][0];
+        int pe = hE[x][0], pk = hK[x][0];
+        pop(x);
+        record(x, value, pe, pk);
+        pendE[x] = pe; pendK[x] = pk + 1; // EDGE: that in-edge's next tail path is only fetched when needed
+        return 1;
+    }
+
+    // Seeds x's heap with each reachable in-edge's best tail path; the edge of path 0 moves on to rank 1
+    private void initCandidates(int x) {
+        int deg = Math.max(1, inStart[x + 1] - inStart[x]);
+        charge(deg);
+        hVal[x] = new long[deg]; hE[x] = new int[deg]; hK[x] = new int[deg];
+        pendE[x] = -1;
+        int first = viaE[x][0];
+        for (int e = inStart[x]; e < inStart[x + 1]; e++) {
+            int u = inFrom[e];
+            if (count[u] == 0) continue;
+            if (e == first) { pendE[x] = e; pendK[x] = 1; }
+            else push(x, val[u][0] + inCost[e], e, 0);
+        }
+    }
+
+    private void record(int v, long value, int e, int k) {
+        reserve(v);
+        int c = count[v]++;
+        val[v][c] = value; viaE[v][c] = e; viaK[v][c] = k;
+    }
+
+    // Room for one more path at v (checked before any state changes, so a cap failure leaves v intact)
+    private void reserve(int v) {
+        int cap = val[v] == null ? 0 : val[v].length;
+        if (count[v] < cap) return;
+        int grown = Math.max(1, cap * 2);
+        charge(grown - cap);
+        val[v] = val[v] == null ? new long[grown] : Arrays.copyOf(val[v], grown);
+        viaE[v] = viaE[v] == null ? new int[grown] : Arrays.copyOf(viaE[v], grown);
+        viaK[v] = viaK[v] == null ? new int[grown] : Arrays.copyOf(viaK[v], grown);
+    }
+
+    private void charge(int entries) {
+        bytes += (long) entries * ENTRY_BYTES;
+        if (bytes > maxBytes)
+            throw new IllegalStateException("K-best paths exceed the memory cap of " + maxBytes + " bytes");
+    }
+
+    private Path build(int t, int k) {
+        int len = 0;
+        for (int x = t, i = k; ; ) {
+            if (x < n) len++;
+            int e = viaE[x][i];
+            if (e < 0) break;
+            i = viaK[x][i]; x = inFrom[e];
+        }
+        int[] vs = new int[len];
+        int p = len;
+        for (int x = t, i = k; ; ) {
+            if (x < n) vs[--p] = x;
+            int e = viaE[x][i];
+            if (e < 0) break;
+            i = viaK[x][i]; x = inFrom[e];
+        }
+        return new Path(val[t][k], vs);
+    }
+
+    // ---------- candidate heap: best value first, ties by (edge, rank) so the order is deterministic ----------
+
+    private boolean before(int x, int a, int b) {
+        long va = hVal[x][a], vb = hVal[x][b];
+        if (va != vb) return better(va, vb);
+        if (hE[x][a] != hE[x][b]) return hE[x][a] < hE[x][b];
+        return hK[x][a] < hK[x][b];
+    }
+
+    private void push(int x, long value, int e, int k) {
+        int i = hSize[x]++;
+        hVal[x][i] = value; hE[x][i] = e; hK[x][i] = k;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(x, i, parent)) break;
+            swap(x, i, parent);
+            i = parent;
+        }
+    }
+
+    private void pop(int x) {
+        int size = --hSize[x];
+        swap(x, 0, size);
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= size) break;
+            if (c + 1 < size && before(x, c + 1, c)) c++;
+            if (!before(x, c, i)) break;
+            swap(x, i, c);
+            i = c;
+        }
+    }
+
+    private void swap(int x, int a, int b) {
+        long tv = hVal[x][a]; hVal[x][a] = hVal[x][b]; hVal[x][b] = tv;
+        int te = hE[x][a]; hE[x][a] = hE[x][b]; hE[x][b] = te;
+        int tk = hK[x][a]; hK[x][a] = hK[x][b]; hK[x][b] = tk;
+    }
+}
@@ -0,0 +1,83 @@
+package graph.dagsp;
+
+import common.Graph;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * DagShortestPaths with 64-bit distances. Reachability is an explicit bitset rather than an INF sentinel,
+ * so every long value is a real distance. With int weights a path sums at most m * 2^31 < 2^62, so the
+ * DP cannot overflow. Same relaxation order and tie-breaking as the int version.
+ */
+public class LongDagShortestPaths {
+    private final Graph g;
+    private final int source;
+    private final long[] dist;
+    private final long[] reached; // bit v set ⇔ v is reachable from source
+    private final int[] prev;
+    private int[] topo; // null → computed on the first run
+    private final int[] nodeW; // node-weight model: path cost = sum of vertex weights, edge weights ignored
+
+    public LongDagShortestPaths(Graph g, int source) {
+        this(g, source, null, null);
+    }
+
+    public LongDagShortestPaths(Graph g, int source, int[] topo, int[] nodeWeights) {
+        if (nodeWeights != null && nodeWeights.length != g.n()) throw new IllegalArgumentException("Need one node weight per vertex");
+        if (topo != null && topo.length != g.n()) throw new IllegalArgumentException("Topological order must cover all " + g.n() + " vertices");
+        this.g = g; this.source = source; this.topo = topo; this.nodeW = nodeWeights;
+        this.dist = new long[g.n()];
+        this.reached = new long[(g.n() + 63) >>> 6];
+        this.prev = new int[g.n()];
+        Arrays.fill(prev, -1);
+    }
+
+    public void run(Metrics metrics) {
+        // STEP 1: topological order (shared with the int version when passed in)
+        if (topo == null) topo = TopologicalSortKahn.orderArray(g, new Metrics());
+
+        metrics.start();
+        // STEP 2: seed source
+        dist[source] = nodeW != null ? nodeW[source] : 0;
+        reached[source >>> 6] |= 1L << source;
+
+        // STEP 3: relax edges in topo order; a first visit always wins, later ones must be strictly shorter
+        for (int u : topo) {
+            if ((reached[u >>> 6] & (1L << u)) == 0) continue; // EDGE: unreachable so far → skip
+            long du = dist[u];
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                long nd = du + (nodeW != null ? nodeW[v] : g.weight(e));
+                long bit = 1L << v;
+                int w = v >>> 6;
+                if ((reached[w] & bit) == 0 || nd < dist[v]) {
+                    reached[w] |= bit;
+                    dist[v] = nd;
+                    prev[v] = u;
+                    if (Metrics.ENABLED) metrics.relaxations++; // METRICS: count successful relax
+                }
+            }
+        }
+        metrics.stop();
+    }
+
+    public boolean reachable(int v) { return (reached[v >>> 6] & (1L << v)) != 0; }
+
+    // Only meaningful when reachable(v)
+    public long distTo(int v) { return dist[v]; }
+
+    public List<Integer> pathTo(int v) {
+        if (!reachable(v)) return Collections.emptyList(); // EDGE: unreachable → empty path
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int x = v; x != -1; x = prev[x]) path.addFirst(x);
+        return path;
+    }
+
+    // Unboxed pathTo
+    public int[] pathArray(int v) { return pathTree().pathTo(v); }
+
+    // prev[] as a PathTree (bulk extraction of all paths)
+    public PathTree pathTree() { return new PathTree(source, prev); }
+}
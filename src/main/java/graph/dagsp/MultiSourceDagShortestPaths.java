@@ -0,0 +1,130 @@
+package graph.dagsp;
+
+import common.Graph;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest distances from k sources over one DAG, reusing a single topological order.
+ *
+ * Sources are processed in blocks of BLOCK lanes: one topo sweep relaxes every edge for all lanes at once,
+ * with the block's distances stored vertex-major (dist[v*BLOCK + j]) so the per-edge inner loop is a
+ * contiguous, branch-free min over the lanes that the JIT can unroll and vectorise. Blocks are independent
+ * and run on a ForkJoinPool when there is more than one of them.
+ *
+ * Lanes are 64-bit and reachability is a per-vertex lane bitmask rather than a sentinel threshold, so
+ * heavy or long chains (sums past 2^31) stay exact, as in LongDagShortestPaths.
+ */
+public class MultiSourceDagShortestPaths {
+    public static final long INF = Long.MAX_VALUE; // result value of unreachable pairs
+    static final int BLOCK = 8;                    // lanes per sweep; one bit each in a byte mask
+    // WHY: unreached lanes hold LANE_INF during a sweep; real |distances| < n·2^31 < LANE_INF − 2^31, so
+    //      LANE_INF + w never overflows and never beats a real candidate
+    private static final long LANE_INF = 1L << 62;
+
+    private final Graph g;
+    private final int[] topo;
+    private final ForkJoinPool pool;
+
+    public MultiSourceDagShortestPaths(Graph g, int[] topo) {
+        this(g, topo, ForkJoinPool.commonPool());
+    }
+
+    // topo == null → computed here once
+    public MultiSourceDagShortestPaths(Graph g, int[] topo, ForkJoinPool pool) {
+        if (topo == null) topo = TopologicalSortKahn.orderArray(g, new Metrics());
+        if (topo.length != g.n()) throw new IllegalArgumentException("Topological order must cover all " + g.n() + " vertices");
+        this.g = g; this.topo = topo; this.pool = pool;
+    }
+
+    // Row i of dist holds distances from sources[i]; INF marks unreachable vertices
+    public static class Result {
+        public final int[] sources;
+        public final int n;
+        public final long[] dist; // k × n, row-major
+        Result(int[] sources, int n, long[] dist) { this.sources = sources; this.n = n; this.dist = dist; }
+        public long distance(int i, int v) { return dist[i * n + v]; }
+        public boolean reachable(int i, int v) { return dist[i * n + v] != INF; }
+        public long[] row(int i) { return Arrays.copyOfRange(dist, i * n, (i + 1) * n); }
+    }
+
+    // All-pairs distances: row u holds distances from vertex u (n² longs — meant for condensation-sized DAGs)
+    public Result allPairs(Metrics metrics) {
+        int[] all = new int[g.n()];
+        for (int u = 0; u < all.length; u++) all[u] = u;
+        return run(all, metrics);
+    }
+
+    public Result run(int[] sources, Metrics metrics) {
+        int n = g.n(), k = sources.length;
+        for (int s : sources) if (s < 0 || s >= n) throw new IllegalArgumentException("Source out of range: " + s);
+        if ((long) k * n > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("k*n exceeds one array: " + k + "*" + n);
+        long[] dist = new long[k * n];
+        int blocks = (k + BLOCK - 1) / BLOCK;
+        LongAdder relax = new LongAdder();
+
+        metrics.start();
+        int tasks = Math.min(blocks, pool.getParallelism());
+        if (tasks <= 1) {
+            long[] lanes = new long[n * BLOCK];
+            byte[] reached = new byte[n];
+            for (int b = 0; b < blocks; b++) relax.add(runBlock(sources, b, lanes, reached, dist));
+        } else {
+            // WHY: one scratch block per task, reused for every source block the task takes
+            pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(t -> {
+                long[] lanes = new long[n * BLOCK];
+                byte[] reached = new byte[n];
+                for (int b = t; b < blocks; b += tasks) relax.add(runBlock(sources, b, lanes, reached, dist));
+            })).join();
+        }
+        metrics.stop();
+        // METRICS: lane relaxations (edge × source pairs examined from reached vertices)
+        metrics.relaxations += relax.sum();
+        return new Result(sources, n, dist);
+    }
+
+    private long runBlock(int[] sources, int b, long[] lanes, byte[] reached, long[] out) {
+        int n = g.n(), from = b * BLOCK, width = Math.min(BLOCK, sources.length - from);
+        long relax = 0;
+
+        // STEP 1: seed each lane's source; unused lanes of the last block are never reached
+        Arrays.fill(lanes, LANE_INF);
+        Arrays.fill(reached, (byte) 0);
+        for (int j = 0; j < width; j++) {
+            int s = sources[from + j];
+            lanes[s * BLOCK + j] = 0;
+            reached[s] |= (byte) (1 << j);
+        }
+
+        // STEP 2: one sweep in topo order relaxes every lane
+        for (int u : topo) {
+            int base = u * BLOCK, mask = reached[u] & 0xFF;
+            if (mask == 0) continue; // EDGE: no lane has reached u yet
+            // WHY: unreached lanes of u may have drifted below LANE_INF (LANE_INF + negative w); reset them
+            //      so their candidates stay above every real distance
+            if (mask != 0xFF) for (int j = 0; j < BLOCK; j++) if ((mask & (1 << j)) == 0) lanes[base + j] = LANE_INF;
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e), vb = v * BLOCK;
+                long w = g.weight(e);
+                for (int j = 0; j < BLOCK; j++)
+                    lanes[vb + j] = Math.min(lanes[vb + j], lanes[base + j] + w);
+                reached[v] |= (byte) mask;
+            }
+            relax += (long) (g.end(u) - g.begin(u)) * width;
+        }
+
+        // STEP 3: scatter lanes into the row-major result
+        for (int j = 0; j < width; j++) {
+            int row = (from + j) * n;
+            for (int v = 0; v < n; v++) {
+                out[row + v] = (reached[v] & (1 << j)) != 0 ? lanes[v * BLOCK + j] : INF;
+            }
+        }
+        return relax;
+    }
+}
@@ -0,0 +1,123 @@
+package graph.dagsp;
+
+import common.CsrGraph;
+import common.Graph;
+import graph.topo.ForkJoinRanges;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pull-based DAG shortest or longest paths, one topological level at a time.
+ *
+ * Every vertex of a level takes the min (or max) over its in-edges, whose tails all sit in earlier
+ * levels, so a level is an embarrassingly parallel wave; wide levels are split over a ForkJoinPool.
+ *
+ * Results are bit-identical to DagShortestPaths / DagLongestPath run over the same topological order:
+ * the sequential push DP keeps the first predecessor (in that order) that reaches the optimum, so the
+ * pull keeps, among optimal in-edges, the tail with the smallest rank in that order.
+ */
+public class ParallelDagPaths {
+    public static final int INF = Integer.MAX_VALUE / 4;
+    public static final int NEG_INF = Integer.MIN_VALUE / 4;
+    private static final int CHUNK = 2048;     // vertices per parallel task
+    private static final int PAR_LEVEL = 8192; // narrower levels run on the calling thread
+
+    private final Graph g;
+    private final int source;
+    private final boolean longest;
+    private final int unreached;
+    private final int[] topo;                  // tie-break order (the sequential DP's order)
+    private final ParallelTopologicalSort.Result levels;
+    private final ForkJoinPool pool;
+    private final CsrGraph in;                 // in-edges (transpose of g)
+    private final int[] rank;                  // position of each vertex in topo
+    private final int[] dist, prev;
+
+    public static ParallelDagPaths shortest(Graph dag, int source) { return new ParallelDagPaths(dag, source, false, null, null, ForkJoinPool.commonPool()); }
+    public static ParallelDagPaths longest(Graph dag, int source) { return new ParallelDagPaths(dag, source, true, null, null, ForkJoinPool.commonPool()); }
+
+    /**
+     * @param topo   order whose sequential DP this must reproduce (null → TopologicalSortKahn.orderArray)
+     * @param levels level structure of dag (null → computed on pool)
+     */
+    public ParallelDagPaths(Graph dag, int source, boolean longest, int[] topo,
+                            ParallelTopologicalSort.Result levels, ForkJoinPool pool) {
+        this.g = dag; this.source = source; this.longest = longest; this.pool = pool;
+        this.unreached = longest ? NEG_INF : INF;
+        this.topo = topo != null ? topo : TopologicalSortKahn.orderArray(dag, new Metrics());
+        this.levels = levels != null ? levels : new ParallelTopologicalSort(pool).sort(dag, new Metrics());
+        if (this.topo.length != dag.n()) throw new IllegalArgumentException("Topological order must cover all " + dag.n() + " vertices");
+        // WHY: in-edges and ranks depend only on the DAG, so repeated runs (other sources) reuse them
+        this.in = CsrGraph.transpose(dag);
+        this.rank = new int[dag.n()];
+        for (int i = 0; i < rank.length; i++) rank[this.topo[i]] = i;
+        this.dist = new int[dag.n()];
+        this.prev = new int[dag.n()];
+    }
+
+    public void run(Metrics metrics) {
+        LongAdder scanned = new LongAdder(), reached = new LongAdder();
+
+        metrics.start();
+        Arrays.fill(dist, unreached);
+        Arrays.fill(prev, -1);
+
+        // STEP 1: waves in level order; each vertex only reads dist[] of earlier levels
+        int[] order = levels.order;
+        for (int l = 0; l < levels.levels(); l++) {
+            int from = levels.levelStart[l], to = levels.levelStart[l + 1];
+            if (to - from >= PAR_LEVEL && pool.getParallelism() > 1) {
+                ForkJoinRanges.parallelFor(pool, from, to, CHUNK, (lo, hi) -> pull(order, lo, hi, scanned, reached));
+            } else {
+                pull(order, from, to, scanned, reached);
+            }
+        }
+        metrics.stop();
+        // METRICS: edgesVisited = in-edges pulled, relaxations = vertices that received a finite value
+        metrics.edgesVisited += scanned.sum();
+        metrics.relaxations += reached.sum();
+    }
+
+    private void pull(int[] order, int lo, int hi, LongAdder scanned, LongAdder reached) {
+        long edges = 0, hits = 0;
+        for (int i = lo; i < hi; i++) {
+            int v = order[i];
+            if (v == source) { dist[v] = 0; continue; }
+            int best = unreached, arg = -1;
+            for (int e = in.begin(v), end = in.end(v); e < end; e++) {
+                int p = in.target(e), dp = dist[p];
+                if (dp == unreached) continue; // EDGE: tail unreachable → the sequential DP skips it too
+                int nd = dp + in.weight(e);
+                if (longest ? nd > best : nd < best) { best = nd; arg = p; }
+                else if (nd == best && arg != -1 && rank[p] < rank[arg]) arg = p; // WHY: first optimal tail in topo order
+            }
+            edges += in.end(v) - in.begin(v);
+            dist[v] = best; prev[v] = arg;
+            if (arg != -1) hits++;
+        }
+        scanned.add(edges);
+        reached.add(hits);
+    }
+
+    public int distTo(int v) { return dist[v]; }
+
+    public int[] distances() { return dist.clone(); }
+
+    public List<Integer> pathTo(int v) {
+        if (dist[v] == unreached) return Collections.emptyList(); // EDGE: unreachable → empty path
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int x = v; x != -1; x = prev[x]) path.addFirst(x);
+        return path;
+    }
+
+    // Unboxed pathTo
+    public int[] pathArray(int v) { return pathTree().pathTo(v); }
+
+    // prev[] as a PathTree (bulk extraction of all paths)
+    public PathTree pathTree() { return new PathTree(source, prev); }
+}
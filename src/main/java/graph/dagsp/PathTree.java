@@ -0,0 +1,72 @@
+package graph.dagsp;
+
+import java.util.*;
+
+/**
+ * Read-only view of a single-source predecessor tree (the prev[] array of a DAG path DP).
+ *
+ * pathTo returns a path as an int[] without boxing. forEachPath walks the tree depth-first over one
+ * shared buffer, so the paths to all reachable targets, which share their prefixes, are produced in
+ * O(tree size) total instead of O(n · path length). The view shares prev[] with the DP that made it.
+ */
+public final class PathTree {
+    private final int root;
+    private final int[] parent; // -1 for the root and for vertices outside the tree
+
+    // Called once per reachable target; path[0..length) runs root → target and is only valid during the call
+    public interface PathVisitor { void visit(int target, int[] path, int length); }
+
+    public PathTree(int root, int[] parent) { this.root = root; this.parent = parent; }
+
+    public int root() { return root; }
+
+    public boolean contains(int v) { return v == root || parent[v] != -1; }
+
+    public int parent(int v) { return parent[v]; }
+
+    // Vertices on the path root → v (0 if v is not in the tree)
+    public int depth(int v) {
+        if (!contains(v)) return 0;
+        int d = 0;
+        for (int x = v; x != -1; x = parent[x]) d++;
+        return d;
+    }
+
+    // Path root → v; empty if v is not in the tree
+    public int[] pathTo(int v) {
+        int[] path = new int[depth(v)];
+        pathTo(v, path);
+        return path;
+    }
+
+    // Allocation-free variant: writes root → v into buf (which must hold depth(v) entries), returns the length
+    public int pathTo(int v, int[] buf) {
+        int len = depth(v);
+        int p = len;
+        if (len > 0) for (int x = v; x != -1; x = parent[x]) buf[--p] = x;
+        return len;
+    }
+
+    public void forEachPath(PathVisitor visitor) {
+        int n = parent.length;
+        // STEP 1: children lists in CSR form (counting sort by parent)
+        int[] start = new int[n + 1];
+        for (int v = 0; v < n; v++) if (parent[v] != -1 && v != root) start[parent[v] + 1]++;
+        for (int v = 0; v < n; v++) start[v + 1] += start[v];
+        int[] child = new int[start[n]], fill = Arrays.copyOf(start, n);
+        for (int v = 0; v < n; v++) if (parent[v] != -1 && v != root) child[fill[parent[v]]++] = v;
+
+        // STEP 2: iterative DFS; path[] is the current root → v prefix, next[d] the next child to open at depth d
+        int[] path = new int[n], next = new int[n];
+        int d = 0;
+        path[0] = root; next[0] = start[root];
+        visitor.visit(root, path, 1);
+        while (d >= 0) {
+            int u = path[d];
+            if (next[d] == start[u + 1]) { d--; continue; } // EDGE: all children done → back up
+            int v = child[next[d]++];
+            path[++d] = v; next[d] = start[v];
+            visitor.visit(v, path, d + 1);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package graph.gen;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import common.CsrGraph;
+import common.DirectedGraph;
+import common.EdgeStream;
+import io.BinaryGraphIO;
+import io.GraphIO;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Seeded generator of directed graphs with planted SCC structure.
+ *
+ * Vertices are split into sccCount components (uniform or power-law sizes); each component with more
+ * than one vertex gets a Hamiltonian cycle, so it is exactly one SCC. Components are spread over
+ * `depth` levels and inter-component edges only go from a lower to a higher level, so the condensation
+ * is a DAG whose longest chain has exactly `depth` components (a backbone edge links consecutive levels).
+ * The same Spec and seed always give the same edge sequence, for JSON and binary output alike.
+ *
+ * Usage:
+ *   java -cp ... graph.gen.GraphGenerator --n 100000 --m 1000000 --sccs 5000 --sizes powerlaw \
+ *        --depth 40 --weights uniform --wmin 1 --wmax 100 --seed 42 --out data/gen_100k.json
+ * The output format follows the extension (.json or .csrg).
+ */
+public class GraphGenerator {
+
+    public static class Spec {
+        public int n = 1000;
+        public long m = 5000;               // target edge count (cycles + backbone + random edges)
+        public int sccCount = 100;
+        public String sizes = "uniform";    // uniform | powerlaw
+        public double powerExponent = 1.5;  // for powerlaw sizes: size_i ~ (i+1)^-exponent
+        public int depth = 10;              // levels of the condensation DAG
+        public double intraShare = 0.2;     // share of random edges placed inside components
+        public String weights = "uniform";  // uniform | exponential
+        public int minWeight = 1, maxWeight = 100;
+        public int source = 0;
+        public long seed = 42L;
+    }
+
+    public static CsrGraph build(Spec spec) {
+        DirectedGraph g = new DirectedGraph(spec.n, (int) Math.min(spec.m, Integer.MAX_VALUE - 8));
+        generate(spec, g::addEdge);
+        return g.csr();
+    }
+
+    public static void generate(Spec s, GraphIO.EdgeSink sink) {
+        if (s.n <= 0 || s.sccCount <= 0 || s.sccCount > s.n) throw new IllegalArgumentException("Need 0 < sccCount <= n");
+        if (s.depth <= 0) throw new IllegalArgumentException("depth must be positive");
+        SplittableRandom rnd = new SplittableRandom(s.seed);
+        int k = s.sccCount;
+
+        // STEP 1: component sizes (sum = n, every component non-empty)
+        int[] size = componentSizes(s, k);
+
+        // STEP 2: random vertex permutation; component c owns perm[start[c] .. start[c+1])
+        int[] perm = new int[s.n];
+        for (int i = 0; i < s.n; i++) perm[i] = i;
+        for (int i = s.n - 1; i > 0; i--) { int j = rnd.nextInt(i + 1); int t = perm[i]; perm[i] = perm[j]; perm[j] = t; }
+        int[] start = new int[k + 1];
+        for (int c = 0; c < k; c++) start[c + 1] = start[c] + size[c];
+        int[] compOf = new int[s.n];
+        for (int c = 0; c < k; c++) for (int i = start[c]; i < start[c + 1]; i++) compOf[perm[i]] = c;
+
+        // STEP 3: levels — first `depth` components seed each level, the rest are random
+        int depth = Math.min(s.depth, k);
+        int[] level = new int[k];
+        for (int c = 0; c < k; c++) level[c] = c < depth ? c : rnd.nextInt(depth);
+
+        long emitted = 0;
+        // STEP 4: one cycle per component → each component is strongly connected
+        for (int c = 0; c < k; c++) {
+            if (size[c] < 2) continue;
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                int next = i + 1 < start[c + 1] ? i + 1 : start[c];
+                sink.edge(perm[i], perm[next], weight(s, rnd));
+                emitted++;
+            }
+        }
+        // STEP 5: backbone chain through the levels → condensation depth is exactly `depth`
+        for (int l = 0; l + 1 < depth; l++) {
+            sink.edge(perm[start[l]], perm[start[l + 1]], weight(s, rnd));
+            emitted++;
+        }
+
+        // STEP 6: random edges — intra-component, or inter-component from lower to higher level
+        // WHY: only placed edges count toward m; rejected draws are bounded separately so an unsatisfiable
+        //      spec (e.g. depth 1 with only singleton components) fails instead of looping forever
+        long attempts = 0, maxAttempts = 64 * Math.max(0, s.m - emitted) + 1024;
+        while (emitted < s.m) {
+            if (++attempts > maxAttempts)
+                throw new IllegalArgumentException("Placed only " + emitted + " of m=" + s.m + " edges after " + maxAttempts + " draws; raise --intra, --depth or component sizes");
+            int u = rnd.nextInt(s.n), cu = compOf[u];
+            if (rnd.nextDouble() < s.intraShare || depth == 1) {
+                if (size[cu] < 2) continue; // WHY: a singleton has no intra edge besides a self-loop
+                int v = perm[start[cu] + rnd.nextInt(size[cu])];
+                if (v != u) { sink.edge(u, v, weight(s, rnd)); emitted++; }
+                continue;
+            }
+            int v = -1;
+            for (int tries = 0; tries < 8; tries++) {
+                int cand = rnd.nextInt(s.n);
+                if (level[compOf[cand]] != level[cu]) { v = cand; break; }
+            }
+            if (v == -1) continue;
+            if (level[compOf[v]] < level[cu]) { int t = u; u = v; v = t; } // orient low → high
+            sink.edge(u, v, weight(s, rnd));
+            emitted++;
+        }
+    }
+
+    private static int[] componentSizes(Spec s, int k) {
+        int[] size = new int[k];
+        if ("powerlaw".equals(s.sizes)) {
+            double total = 0;
+            for (int c = 0; c < k; c++) total += Math.pow(c + 1, -s.powerExponent);
+            int rest = s.n - k; // every component gets 1, the remainder is split by weight
+            int used = 0;
+            for (int c = 0; c < k; c++) {
+                size[c] = 1 + (int) (rest * Math.pow(c + 1, -s.powerExponent) / total);
+                used += size[c];
+            }
+            size[0] += s.n - used; // rounding leftovers go to the largest component
+        } else if ("uniform".equals(s.sizes)) {
+            for (int c = 0; c < k; c++) size[c] = s.n / k + (c < s.n % k ? 1 : 0);
+        } else {
+            throw new IllegalArgumentException("Unknown size distribution: " + s.sizes);
+        }
+        return size;
+    }
+
+    private static int weight(Spec s, SplittableRandom rnd) {
+        int span = s.maxWeight - s.minWeight;
+        if ("exponential".equals(s.weights)) {
+            // mean of a quarter of the range, clamped to [min, max]
+            double x = -Math.log(1 - rnd.nextDouble()) * Math.max(1, span / 4.0);
+            return s.minWeight + (int) Math.min(span, x);
+        }
+        return s.minWeight + (span > 0 ? rnd.nextInt(span + 1) : 0);
+    }
+
+    // Streams straight to JSON in the schema GraphIO reads — no edge list is kept in memory
+    public static void writeJson(Spec s, Path out) throws IOException {
+        try (JsonGenerator j = new JsonFactory().createGenerator(out.toFile(), JsonEncoding.UTF8)) {
+            j.writeStartObject();
+            j.writeBooleanField("directed", true);
+            j.writeNumberField("n", s.n);
+            j.writeArrayFieldStart("edges");
+            IOException[] err = new IOException[1];
+            generate(s, (u, v, w) -> {
+                if (err[0] != null) return;
+                try {
+                    j.writeStartObject();
+                    j.writeNumberField("u", u);
+                    j.writeNumberField("v", v);
+                    j.writeNumberField("w", w);
+                    j.writeEndObject();
+                } catch (IOException e) { err[0] = e; }
+            });
+            if (err[0] != null) throw err[0];
+            j.writeEndArray();
+            j.writeNumberField("source", s.source);
+            j.writeStringField("weight_model", "edge");
+            j.writeEndObject();
+        }
+    }
+
+    // The generator as a re-playable edge stream: every scan regenerates the same edges from the seed
+    public static EdgeStream stream(Spec s) {
+        return new EdgeStream() {
+            @Override public int n() { return s.n; }
+            @Override public long m() { return s.m; }
+            @Override public void scan(Sink sink) { generate(s, sink::edge); }
+        };
+    }
+
+    // WHY: .csrg is written in two generation passes (count, then scatter), so neither format holds the graph in memory
+    public static void write(Spec s, Path out) throws IOException {
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        if (out.toString().endsWith(BinaryGraphIO.EXTENSION)) BinaryGraphIO.write(stream(s), s.source, out);
+        else writeJson(s, out);
+    }
+
+    private static void usage() {
+        System.out.println("Usage: GraphGenerator --n N --m M --sccs K [--sizes uniform|powerlaw] [--alpha A] [--depth D]");
+        System.out.println("       [--intra SHARE] [--weights uniform|exponential] [--wmin W] [--wmax W] [--seed S] --out file.json|file.csrg");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Spec s = new Spec();
+        String out = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) { // EDGE: a trailing flag without its value must not be silently dropped
+                usage();
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--n": s.n = Integer.parseInt(v); break;
+                case "--m": s.m = Long.parseLong(v); break;
+                case "--sccs": s.sccCount = Integer.parseInt(v); break;
+                case "--sizes": s.sizes = v; break;
+                case "--alpha": s.powerExponent = Double.parseDouble(v); break;
+                case "--depth": s.depth = Integer.parseInt(v); break;
+                case "--intra": s.intraShare = Double.parseDouble(v); break;
+                case "--weights": s.weights = v; break;
+                case "--wmin": s.minWeight = Integer.parseInt(v); break;
+                case "--wmax": s.maxWeight = Integer.parseInt(v); break;
+                case "--source": s.source = Integer.parseInt(v); break;
+                case "--seed": s.seed = Long.parseLong(v); break;
+                case "--out": out = v; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (out == null) {
+            usage();
+            return;
+        }
+        write(s, Paths.get(out));
+        System.out.println("Wrote " + out);
+    }
+}
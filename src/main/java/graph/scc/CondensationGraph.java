@@ -1,65 +1,101 @@
 package graph.scc;
 
-import common.DirectedGraph;
-import common.Edge;
+import common.CsrGraph;
+import common.Graph;
 
 import java.util.*;
 
 public class CondensationGraph {
 
-    // Helper pair to represent edges between SCC components
-    public static class Pair {
-        public final int u, v;
-        public Pair(int u, int v) { this.u = u; this.v = v; }
-        @Override public boolean equals(Object o) {
-            if (!(o instanceof Pair)) return false;
-            Pair p = (Pair) o;
-            return u == p.u && v == p.v;
-        }
-        @Override public int hashCode() { return Objects.hash(u, v); }
+    // Both condensation DAGs share offsets and targets; only the weight arrays differ
+    public static class Result {
+        public final CsrGraph min; // minimum edge weight per SCC→SCC pair (shortest paths)
+        public final CsrGraph max; // maximum edge weight per SCC→SCC pair (critical path)
+        public Result(CsrGraph min, CsrGraph max) { this.min = min; this.max = max; }
     }
 
-    // STEP 1: Build condensation DAG using minimum edge weights between SCCs
-    public static DirectedGraph buildMinEdgeWeights(DirectedGraph g, int[] compOf, int compCount) {
-        Map<Pair, Integer> minW = new HashMap<>();
+    // Builds the min- and max-weight condensation DAGs in one pass, with no hashing or boxing
+    public static Result build(Graph g, int[] compOf, int compCount) {
+        int n = g.n();
 
-        // STEP 2: iterate all edges in the original graph
-        for (Edge e : g.getEdges()) {
-            int cu = compOf[e.u], cv = compOf[e.v];
-            if (cu != cv) { // only edges between different SCCs
-                Pair p = new Pair(cu, cv);
-                // WHY: keep smallest weight for each SCC→SCC connection
-                minW.put(p, Math.min(minW.getOrDefault(p, Integer.MAX_VALUE), e.w));
+        // STEP 1: count inter-component edges per source component
+        int[] start = new int[compCount + 1];
+        for (int u = 0; u < n; u++) {
+            int cu = compOf[u];
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                if (compOf[g.target(e)] != cu) start[cu + 1]++; // only edges between different SCCs
             }
         }
+        for (int c = 0; c < compCount; c++) start[c + 1] += start[c];
+        int total = start[compCount];
 
-        // STEP 3: create new directed acyclic graph (DAG) of components
-        DirectedGraph dag = new DirectedGraph(compCount);
-        for (Map.Entry<Pair, Integer> en : minW.entrySet()) {
-            dag.addEdge(en.getKey().u, en.getKey().v, en.getValue());
+        // STEP 2: bucket (target component, weight) by source component (counting sort)
+        int[] targets = new int[total];
+        int[] minW = new int[total];
+        int[] next = Arrays.copyOf(start, compCount);
+        for (int u = 0; u < n; u++) {
+            int cu = compOf[u];
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int cv = compOf[g.target(e)];
+                if (cv == cu) continue;
+                int p = next[cu]++;
+                targets[p] = cv;
+                minW[p] = g.weight(e);
+            }
         }
-        return dag;
-    }
 
-    // STEP 4: Build condensation DAG using maximum edge weights between SCCs
-    public static DirectedGraph buildMaxEdgeWeights(DirectedGraph g, int[] compOf, int compCount) {
-        Map<Pair, Integer> maxW = new HashMap<>();
-
-        // STEP 5: iterate all edges, select the largest weight for each SCC→SCC link
-        for (Edge e : g.getEdges()) {
-            int cu = compOf[e.u], cv = compOf[e.v];
-            if (cu != cv) {
-                Pair p = new Pair(cu, cv);
-                // WHY: for longest path computations (critical path)
-                maxW.put(p, Math.max(maxW.getOrDefault(p, Integer.MIN_VALUE), e.w));
+        // STEP 3: deduplicate each bucket in place; seen[cv] == cu marks a pair already emitted for cu
+        // WHY: stamping with the source component avoids clearing seen[] between buckets
+        int[] maxW = new int[total];
+        int[] seen = new int[compCount];
+        int[] slot = new int[compCount];
+        Arrays.fill(seen, -1);
+        int[] offsets = new int[compCount + 1];
+        int out = 0;
+        for (int cu = 0; cu < compCount; cu++) {
+            offsets[cu] = out;
+            for (int i = start[cu]; i < start[cu + 1]; i++) {
+                int cv = targets[i], w = minW[i];
+                if (seen[cv] == cu) {
+                    int s = slot[cv];
+                    if (w < minW[s]) minW[s] = w; // keep smallest weight for each SCC→SCC connection
+                    if (w > maxW[s]) maxW[s] = w; // keep largest for longest path computations
+                } else {
+                    seen[cv] = cu;
+                    slot[cv] = out;
+                    targets[out] = cv; // out <= i, so compacting in place never overwrites unread entries
+                    minW[out] = w;
+                    maxW[out] = w;
+                    out++;
+                }
             }
         }
+        offsets[compCount] = out;
 
-        // STEP 6: build the DAG with max-weighted edges
-        DirectedGraph dag = new DirectedGraph(compCount);
-        for (Map.Entry<Pair, Integer> en : maxW.entrySet()) {
-            dag.addEdge(en.getKey().u, en.getKey().v, en.getValue());
+        // STEP 4: release slack when duplicates were common
+        if (out < total - (total >> 2)) {
+            targets = Arrays.copyOf(targets, out);
+            minW = Arrays.copyOf(minW, out);
+            maxW = Arrays.copyOf(maxW, out);
         }
-        return dag;
+        return new Result(new CsrGraph(compCount, offsets, targets, minW),
+                          new CsrGraph(compCount, offsets, targets, maxW));
+    }
+
+    // Node-weight model: a component's weight is the total duration of its tasks
+    public static int[] aggregateNodeWeights(int[] nodeWeights, int[] compOf, int compCount) {
+        int[] sum = new int[compCount];
+        for (int v = 0; v < compOf.length; v++) sum[compOf[v]] = Math.addExact(sum[compOf[v]], nodeWeights[v]);
+        return sum;
+    }
+
+    // Build condensation DAG using minimum edge weights between SCCs
+    public static CsrGraph buildMinEdgeWeights(Graph g, int[] compOf, int compCount) {
+        return build(g, compOf, compCount).min;
+    }
+
+    // Build condensation DAG using maximum edge weights between SCCs
+    public static CsrGraph buildMaxEdgeWeights(Graph g, int[] compOf, int compCount) {
+        return build(g, compOf, compCount).max;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,535 @@
+package graph.scc;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import common.Graph;
+import graph.topo.TopologicalSortKahn;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * SCCs and both condensation DAGs maintained under single edge insertions and deletions.
+ *
+ * Insertion u→v between components keeps a topological order of the components (Pearce–Kelly):
+ * if the order is already respected nothing moves; otherwise a forward search from v and a backward
+ * search from u, both bounded by the two positions, find the affected region. Components found by both
+ * searches lie on a new cycle and are merged; the rest are reordered within their own position pool.
+ * Deletion inside a component first checks whether u still reaches v in it (then nothing changes) and
+ * otherwise re-runs Tarjan on that component only and splits it in place.
+ *
+ * Positions are long labels in an order-maintenance list, so split pieces can be inserted right after
+ * their parent without renumbering. Inter-component edges are summarised per component pair (count,
+ * min, max); a CSR snapshot of the condensation is only built when asked for.
+ *
+ * Component ids are internal and stable between updates; components() and condensation() renumber
+ * them densely in topological order. Every update is timed into Metrics.recordUpdate.
+ */
+public class DynamicSCC {
+    private static final long GAP = 1L << 24; // label spacing after a relabel
+
+    private final int n;
+    private final Metrics metrics;
+    private int m;
+
+    // adjacency multigraph: out and in lists per vertex
+    private final int[][] outT, outW, inS, inW;
+    private final int[] outDeg, inDeg;
+
+    // components: ids < n, recycled through a free stack
+    private final int[] compOf;
+    private final int[][] memb;
+    private final int[] msize;
+    private final int[] compSlot;
+    private final int[] freeComp;
+    private int freeCompTop, live;
+
+    // order-maintenance list of slots; each live component owns exactly one slot
+    private final long[] label;
+    private final int[] next, prev, owner;
+    private final int[] freeSlot;
+    private int freeSlotTop, head = -1;
+
+    private final PairStats pairs;
+
+    // scratch (stamped so nothing is cleared between updates)
+    private final int[] vmark, cmarkF, cmarkB, cmarkM;
+    private int vepoch, fepoch, bepoch, mepoch;
+    private final int[] queue, cstack;
+    private final int[] idx, low, nextEdge, call, tstack, piece;
+
+    private int version;
+    private int snapVersion = -1, condVersion = -1;
+    private TarjanSCC.Result snap;
+    private CondensationGraph.Result cond;
+
+    public DynamicSCC(Graph g, Metrics metrics) {
+        this.n = g.n();
+        this.metrics = metrics;
+        outT = new int[n][]; outW = new int[n][]; inS = new int[n][]; inW = new int[n][];
+        outDeg = new int[n]; inDeg = new int[n];
+        compOf = new int[n]; memb = new int[n][]; msize = new int[n]; compSlot = new int[n];
+        freeComp = new int[n];
+        label = new long[n]; next = new int[n]; prev = new int[n]; owner = new int[n]; freeSlot = new int[n];
+        vmark = new int[n]; cmarkF = new int[n]; cmarkB = new int[n]; cmarkM = new int[n];
+        queue = new int[n]; cstack = new int[n];
+        idx = new int[n]; low = new int[n]; nextEdge = new int[n]; call = new int[n]; tstack = new int[n]; piece = new int[n];
+
+        // STEP 1: copy the adjacency
+        int[] indeg = new int[n];
+        for (int e = 0; e < g.m(); e++) indeg[g.target(e)]++;
+        for (int u = 0; u < n; u++) {
+            int d = g.end(u) - g.begin(u);
+            outT[u] = new int[Math.max(d, 2)]; outW[u] = new int[Math.max(d, 2)];
+            inS[u] = new int[Math.max(indeg[u], 2)]; inW[u] = new int[Math.max(indeg[u], 2)];
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e), w = g.weight(e);
+                outT[u][outDeg[u]] = v; outW[u][outDeg[u]++] = w;
+                inS[v][inDeg[v]] = u; inW[v][inDeg[v]++] = w;
+            }
+        }
+        m = g.m();
+
+        // STEP 2: initial SCCs and a topological order of the condensation
+        TarjanSCC.Result r = new IterativeTarjanSCC().compute(g, new Metrics()); // metrics cover updates only
+        System.arraycopy(r.compOf, 0, compOf, 0, n);
+        live = r.count();
+        for (int c = 0; c < live; c++) {
+            memb[c] = Arrays.copyOfRange(r.members, r.compStart[c], r.compStart[c + 1]);
+            msize[c] = memb[c].length;
+        }
+        for (int c = n - 1; c >= live; c--) freeComp[freeCompTop++] = c;
+        int[] topo = TopologicalSortKahn.orderArray(CondensationGraph.build(g, r.compOf, live).min, new Metrics());
+        for (int i = 0; i < live; i++) {
+            label[i] = (i + 1) * GAP;
+            prev[i] = i - 1;
+            next[i] = i + 1 < live ? i + 1 : -1;
+            owner[i] = topo[i];
+            compSlot[topo[i]] = i;
+        }
+        head = live > 0 ? 0 : -1;
+        for (int s = n - 1; s >= live; s--) freeSlot[freeSlotTop++] = s;
+
+        // STEP 3: component-pair summaries
+        pairs = new PairStats(Math.max(16, m / 2));
+        for (int u = 0; u < n; u++)
+            for (int i = 0; i < outDeg[u]; i++) {
+                int cu = compOf[u], cv = compOf[outT[u][i]];
+                if (cu != cv) pairs.add(PairStats.key(cu, cv), outW[u][i]);
+            }
+    }
+
+    public int n() { return n; }
+    public int m() { return m; }
+    public int count() { return live; }
+    public int compOf(int v) { return compOf[v]; }
+    public int size(int c) { return msize[c]; }
+    public int[] members(int c) { return Arrays.copyOf(memb[c], msize[c]); }
+
+    // ---------- updates ----------
+
+    public void addEdge(int u, int v, int w) {
+        check(u); check(v);
+        long t0 = System.nanoTime();
+        append(u, v, w);
+        int cu = compOf[u], cv = compOf[v];
+        if (cu != cv) {
+            pairs.add(PairStats.key(cu, cv), w);
+            // EDGE: order already respects u→v → nothing else to do
+            if (ord(cu) > ord(cv)) reorderOrMerge(cu, cv);
+        }
+        version++;
+        metrics.recordUpdate(System.nanoTime() - t0);
+    }
+
+    // Removes one u→v edge of any weight; false if there is none
+    public boolean removeEdge(int u, int v) {
+        check(u); check(v);
+        for (int i = 0; i < outDeg[u]; i++) if (outT[u][i] == v) return removeEdge(u, v, outW[u][i]);
+        return false;
+    }
+
+    // Removes one u→v edge with weight w; false if there is none
+    public boolean removeEdge(int u, int v, int w) {
+        check(u); check(v);
+        long t0 = System.nanoTime();
+        if (!detach(u, v, w)) return false;
+        int cu = compOf[u], cv = compOf[v];
+        if (cu != cv) {
+            int s = pairs.find(PairStats.key(cu, cv));
+            if (pairs.countAt(s) == 1) pairs.removeAt(s);
+            else if (w == pairs.minAt(s) || w == pairs.maxAt(s)) recomputePair(cu, cv, s);
+            else pairs.set(s, pairs.countAt(s) - 1, pairs.minAt(s), pairs.maxAt(s));
+        } else if (u != v && msize[cu] > 1 && !reaches(u, v, cu)) {
+            split(cu);
+        }
+        version++;
+        metrics.recordUpdate(System.nanoTime() - t0);
+        return true;
+    }
+
+    // ---------- snapshots ----------
+
+    // Dense component ids in topological order (every condensation edge goes from a lower to a higher id)
+    public TarjanSCC.Result components() {
+        if (snapVersion == version) return snap;
+        int[] dense = new int[n], start = new int[live + 1], members = new int[n];
+        int c = 0, p = 0;
+        for (int s = head; s != -1; s = next[s], c++) {
+            int id = owner[s];
+            for (int i = 0; i < msize[id]; i++) { int x = memb[id][i]; members[p++] = x; dense[x] = c; }
+            start[c + 1] = p;
+        }
+        snap = new TarjanSCC.Result(dense, start, members);
+        snapVersion = version;
+        return snap;
+    }
+
+    // Min/max condensation DAGs over the ids of components()
+    public CondensationGraph.Result condensation() {
+        if (condVersion == version) return cond;
+        int[] dense = new int[n];
+        int c = 0;
+        for (int s = head; s != -1; s = next[s]) dense[owner[s]] = c++;
+        int k = pairs.size();
+        int[] offsets = new int[live + 1], targets = new int[k], minW = new int[k], maxW = new int[k];
+        for (int i = 0; i < pairs.capacity(); i++)
+            if (pairs.used(i)) offsets[dense[PairStats.from(pairs.keyAt(i))] + 1]++;
+        for (int i = 0; i < live; i++) offsets[i + 1] += offsets[i];
+        int[] fill = Arrays.copyOf(offsets, live);
+        for (int i = 0; i < pairs.capacity(); i++) {
+            if (!pairs.used(i)) continue;
+            long key = pairs.keyAt(i);
+            int p = fill[dense[PairStats.from(key)]]++;
+            targets[p] = dense[PairStats.to(key)];
+            minW[p] = pairs.minAt(i);
+            maxW[p] = pairs.maxAt(i);
+        }
+        cond = new CondensationGraph.Result(new CsrGraph(live, offsets, targets, minW),
+                                            new CsrGraph(live, offsets, targets, maxW));
+        condVersion = version;
+        return cond;
+    }
+
+    // Current edge set as a plain graph
+    public DirectedGraph graph() {
+        DirectedGraph g = new DirectedGraph(n, m);
+        for (int u = 0; u < n; u++) for (int i = 0; i < outDeg[u]; i++) g.addEdge(u, outT[u][i], outW[u][i]);
+        return g;
+    }
+
+    // ---------- insertion: Pearce–Kelly search, reorder and merge ----------
+
+    private void reorderOrMerge(int cu, int cv) {
+        long lb = ord(cv), ub = ord(cu);
+
+        // STEP 1: forward from cv over components positioned ≤ ub
+        fepoch++;
+        int nf = 0, sp = 0;
+        int[] fwd = new int[16];
+        cmarkF[cv] = fepoch; cstack[sp++] = cv;
+        while (sp > 0) {
+            int c = cstack[--sp];
+            if (nf == fwd.length) fwd = Arrays.copyOf(fwd, nf << 1);
+            fwd[nf++] = c;
+            if (Metrics.ENABLED) metrics.dfsCalls++; // METRICS: components visited by the bounded searches
+            for (int i = 0; i < msize[c]; i++) {
+                int x = memb[c][i];
+                for (int j = 0; j < outDeg[x]; j++) {
+                    int cy = compOf[outT[x][j]];
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                    if (cmarkF[cy] != fepoch && ord(cy) <= ub) { cmarkF[cy] = fepoch; cstack[sp++] = cy; }
+                }
+            }
+        }
+
+        // STEP 2: backward from cu over components positioned ≥ lb
+        bepoch++;
+        int nb = 0;
+        int[] bwd = new int[16];
+        cmarkB[cu] = bepoch; cstack[sp++] = cu;
+        while (sp > 0) {
+            int c = cstack[--sp];
+            if (nb == bwd.length) bwd = Arrays.copyOf(bwd, nb << 1);
+            bwd[nb++] = c;
+            if (Metrics.ENABLED) metrics.dfsCalls++;
+            for (int i = 0; i < msize[c]; i++) {
+                int x = memb[c][i];
+                for (int j = 0; j < inDeg[x]; j++) {
+                    int cz = compOf[inS[x][j]];
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                    if (cmarkB[cz] != bepoch && ord(cz) >= lb) { cmarkB[cz] = bepoch; cstack[sp++] = cz; }
+                }
+            }
+        }
+
+        // STEP 3: split into B' (only backward), M (both: on the new cycle) and F' (only forward)
+        boolean cycle = cmarkF[cu] == fepoch;
+        int[] pool = new int[nf + nb];
+        int np = 0;
+        for (int i = 0; i < nb; i++) pool[np++] = bwd[i];
+        for (int i = 0; i < nf; i++) if (cmarkB[fwd[i]] != bepoch) pool[np++] = fwd[i];
+        int[] slots = slotsInOrder(pool, np);
+        int[] onlyB = sortByOrd(bwd, nb, true), onlyF = sortByOrd(fwd, nf, false);
+
+        // STEP 4: B' takes the lowest slots, F' the highest (PK keeps both groups' inner order)
+        int p = 0;
+        for (int c : onlyB) assign(c, slots[p++]);
+        int top = np - onlyF.length;
+        for (int i = 0; i < onlyF.length; i++) assign(onlyF[i], slots[top + i]);
+        if (!cycle) return;
+
+        // STEP 5: merge M into its largest component, which takes the first slot after B'
+        mepoch++;
+        int keep = -1, nm = 0;
+        int[] merged = new int[nb];
+        for (int i = 0; i < nb; i++) {
+            int c = bwd[i];
+            if (cmarkF[c] != fepoch) continue;
+            cmarkM[c] = mepoch;
+            merged[nm++] = c;
+            if (keep == -1 || msize[c] > msize[keep]) keep = c;
+        }
+        assign(keep, slots[p]);
+        for (int i = p + 1; i < top; i++) unlink(slots[i]); // WHY: M needs one slot, the rest are dropped
+        merge(keep, merged, nm);
+    }
+
+    // Folds every component of merged[] (all marked with mepoch) into keep
+    private void merge(int keep, int[] merged, int nm) {
+        for (int k = 0; k < nm; k++) {
+            int a = merged[k];
+            if (a == keep) continue;
+            // STEP 1: re-key a's inter-component pairs onto keep; pairs inside M vanish
+            for (int i = 0; i < msize[a]; i++) {
+                int x = memb[a][i];
+                for (int j = 0; j < outDeg[x]; j++) {
+                    int cy = compOf[outT[x][j]];
+                    if (cy == a) continue;
+                    pairs.remove(PairStats.key(a, cy));
+                    if (cmarkM[cy] != mepoch) pairs.add(PairStats.key(keep, cy), outW[x][j]);
+                }
+                for (int j = 0; j < inDeg[x]; j++) {
+                    int cz = compOf[inS[x][j]];
+                    if (cz == a) continue;
+                    pairs.remove(PairStats.key(cz, a));
+                    if (cmarkM[cz] != mepoch) pairs.add(PairStats.key(cz, keep), inW[x][j]);
+                }
+            }
+        }
+        for (int k = 0; k < nm; k++) {
+            int a = merged[k];
+            if (a == keep) continue;
+            // STEP 2: move members and recycle the id
+            for (int i = 0; i < msize[a]; i++) { int x = memb[a][i]; compOf[x] = keep; pushMember(keep, x); }
+            memb[a] = null; msize[a] = 0;
+            freeComp[freeCompTop++] = a;
+            live--;
+        }
+    }
+
+    // ---------- deletion: reachability check, then local Tarjan split ----------
+
+    // BFS inside component c; true if u still reaches v
+    private boolean reaches(int u, int v, int c) {
+        vepoch++;
+        int h = 0, t = 0;
+        vmark[u] = vepoch; queue[t++] = u;
+        while (h < t) {
+            int x = queue[h++];
+            for (int j = 0; j < outDeg[x]; j++) {
+                int y = outT[x][j];
+                if (Metrics.ENABLED) metrics.edgesVisited++;
+                if (y == v) return true;
+                if (vmark[y] != vepoch && compOf[y] == c) { vmark[y] = vepoch; queue[t++] = y; }
+            }
+        }
+        return false;
+    }
+
+    private void split(int c) {
+        int[] mem = memb[c];
+        int size = msize[c];
+
+        // STEP 1: Tarjan restricted to c's members (same explicit-stack scheme as IterativeTarjanSCC)
+        vepoch++;
+        for (int i = 0; i < size; i++) { vmark[mem[i]] = vepoch; idx[mem[i]] = -1; }
+        int index = 0, sp = 0, pieces = 0;
+        for (int i = 0; i < size; i++) {
+            int r = mem[i];
+            if (idx[r] != -1) continue;
+            int top = 0;
+            idx[r] = low[r] = index++; piece[r] = -1; tstack[sp++] = r; nextEdge[r] = 0; call[top++] = r;
+            if (Metrics.ENABLED) metrics.dfsCalls++;
+            while (top > 0) {
+                int v = call[top - 1];
+                if (nextEdge[v] < outDeg[v]) {
+                    int w = outT[v][nextEdge[v]++];
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                    if (vmark[w] != vepoch) continue; // EDGE: leaves the component
+                    if (idx[w] == -1) {
+                        if (Metrics.ENABLED) metrics.dfsCalls++;
+                        idx[w] = low[w] = index++; piece[w] = -1; tstack[sp++] = w; nextEdge[w] = 0; call[top++] = w;
+                    } else if (piece[w] == -1) {
+                        low[v] = Math.min(low[v], idx[w]);
+                    }
+                    continue;
+                }
+                top--;
+                if (low[v] == idx[v]) {
+                    int w;
+                    do { w = tstack[--sp]; piece[w] = pieces; } while (w != v);
+                    pieces++;
+                }
+                if (top > 0) { int parent = call[top - 1]; low[parent] = Math.min(low[parent], low[v]); }
+            }
+        }
+        if (pieces == 1) return;
+
+        // STEP 2: drop every pair touching c (old ids)
+        for (int i = 0; i < size; i++) {
+            int x = mem[i];
+            for (int j = 0; j < outDeg[x]; j++) { int cy = compOf[outT[x][j]]; if (cy != c) pairs.remove(PairStats.key(c, cy)); }
+            for (int j = 0; j < inDeg[x]; j++) { int cz = compOf[inS[x][j]]; if (cz != c) pairs.remove(PairStats.key(cz, c)); }
+        }
+
+        // STEP 3: Tarjan emits sinks first → the last piece is topologically first and keeps c's id and slot
+        int[] idOf = new int[pieces];
+        idOf[pieces - 1] = c;
+        int slot = compSlot[c];
+        for (int pc = pieces - 2; pc >= 0; pc--) {
+            idOf[pc] = freeComp[--freeCompTop];
+            slot = insertAfter(slot);
+            assign(idOf[pc], slot);
+            live++;
+        }
+        int[] cnt = new int[pieces];
+        for (int i = 0; i < size; i++) cnt[piece[mem[i]]]++;
+        for (int pc = 0; pc < pieces; pc++) { memb[idOf[pc]] = new int[Math.max(cnt[pc], 2)]; msize[idOf[pc]] = 0; }
+        for (int i = 0; i < size; i++) {
+            int x = mem[i], id = idOf[piece[x]];
+            compOf[x] = id;
+            memb[id][msize[id]++] = x;
+        }
+
+        // STEP 4: rebuild pairs for the pieces; in-edges from outside c are added here, edges inside c once via out-lists
+        for (int i = 0; i < size; i++) {
+            int x = mem[i], cx = compOf[x];
+            for (int j = 0; j < outDeg[x]; j++) {
+                int cy = compOf[outT[x][j]];
+                if (cy != cx) pairs.add(PairStats.key(cx, cy), outW[x][j]);
+            }
+            for (int j = 0; j < inDeg[x]; j++) {
+                int z = inS[x][j];
+                if (vmark[z] != vepoch) pairs.add(PairStats.key(compOf[z], cx), inW[x][j]);
+            }
+        }
+    }
+
+    // Deleting the current min or max of a pair needs a rescan of cu's edges into cv
+    private void recomputePair(int cu, int cv, int slot) {
+        int cnt = 0, mn = Integer.MAX_VALUE, mx = Integer.MIN_VALUE;
+        for (int i = 0; i < msize[cu]; i++) {
+            int x = memb[cu][i];
+            for (int j = 0; j < outDeg[x]; j++) {
+                if (compOf[outT[x][j]] != cv) continue;
+                int w = outW[x][j];
+                cnt++;
+                if (w < mn) mn = w;
+                if (w > mx) mx = w;
+            }
+        }
+        pairs.set(slot, cnt, mn, mx);
+    }
+
+    // ---------- order maintenance ----------
+
+    private long ord(int c) { return label[compSlot[c]]; }
+
+    private void assign(int c, int slot) { compSlot[c] = slot; owner[slot] = c; }
+
+    // Slots of comps[0..len) sorted by label
+    private int[] slotsInOrder(int[] comps, int len) {
+        long[] labels = new long[len];
+        for (int i = 0; i < len; i++) labels[i] = ord(comps[i]);
+        Arrays.sort(labels);
+        int[] slots = new int[len];
+        for (int i = 0; i < len; i++) slots[Arrays.binarySearch(labels, ord(comps[i]))] = compSlot[comps[i]];
+        return slots;
+    }
+
+    // Components of list[0..len) outside the other search, sorted by label (labels are unique)
+    private int[] sortByOrd(int[] list, int len, boolean backward) {
+        long[] labels = new long[len];
+        int k = 0;
+        for (int i = 0; i < len; i++) if (!inBoth(list[i], backward)) labels[k++] = ord(list[i]);
+        labels = Arrays.copyOf(labels, k);
+        Arrays.sort(labels);
+        int[] out = new int[k];
+        for (int i = 0; i < len; i++) if (!inBoth(list[i], backward)) out[Arrays.binarySearch(labels, ord(list[i]))] = list[i];
+        return out;
+    }
+
+    private boolean inBoth(int c, boolean backward) {
+        return backward ? cmarkF[c] == fepoch : cmarkB[c] == bepoch;
+    }
+
+    private int insertAfter(int s) {
+        int nx = next[s];
+        if (nx == -1 ? label[s] > Long.MAX_VALUE / 2 : label[nx] - label[s] < 2) relabel();
+        long lo = label[s], hi = nx == -1 ? lo + 2 * GAP : label[nx];
+        int t = freeSlot[--freeSlotTop];
+        label[t] = lo + (hi - lo) / 2;
+        prev[t] = s; next[t] = nx; next[s] = t;
+        if (nx != -1) prev[nx] = t;
+        return t;
+    }
+
+    private void unlink(int s) {
+        if (prev[s] != -1) next[prev[s]] = next[s]; else head = next[s];
+        if (next[s] != -1) prev[next[s]] = prev[s];
+        freeSlot[freeSlotTop++] = s;
+    }
+
+    // WHY: a gap closes only after ~24 halvings at one spot, so a full relabel is rare
+    private void relabel() {
+        long l = GAP;
+        for (int s = head; s != -1; s = next[s], l += GAP) label[s] = l;
+    }
+
+    // ---------- adjacency ----------
+
+    private void append(int u, int v, int w) {
+        if (outDeg[u] == outT[u].length) { outT[u] = Arrays.copyOf(outT[u], outDeg[u] << 1); outW[u] = Arrays.copyOf(outW[u], outDeg[u] << 1); }
+        outT[u][outDeg[u]] = v; outW[u][outDeg[u]++] = w;
+        if (inDeg[v] == inS[v].length) { inS[v] = Arrays.copyOf(inS[v], inDeg[v] << 1); inW[v] = Arrays.copyOf(inW[v], inDeg[v] << 1); }
+        inS[v][inDeg[v]] = u; inW[v][inDeg[v]++] = w;
+        m++;
+    }
+
+    // Swap-removes one matching entry from u's out-list and v's in-list
+    private boolean detach(int u, int v, int w) {
+        int i = 0;
+        while (i < outDeg[u] && (outT[u][i] != v || outW[u][i] != w)) i++;
+        if (i == outDeg[u]) return false;
+        int last = --outDeg[u];
+        outT[u][i] = outT[u][last]; outW[u][i] = outW[u][last];
+        int j = 0;
+        while (inS[v][j] != u || inW[v][j] != w) j++;
+        last = --inDeg[v];
+        inS[v][j] = inS[v][last]; inW[v][j] = inW[v][last];
+        m--;
+        return true;
+    }
+
+    private void pushMember(int c, int x) {
+        if (msize[c] == memb[c].length) memb[c] = Arrays.copyOf(memb[c], msize[c] << 1);
+        memb[c][msize[c]++] = x;
+    }
+
+    private void check(int v) {
+        if (v < 0 || v >= n) throw new IllegalArgumentException("Vertex out of range: " + v);
+    }
+}
@@ -0,0 +1,87 @@
+package graph.scc;
+
+import common.Graph;
+import utils.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Tarjan's SCC with an explicit int-array call stack instead of recursion.
+ * Visits vertices and edges in exactly the same order as {@link TarjanSCC}, so component ids,
+ * member order and metrics are identical — but depth is bounded by the heap, not the thread stack.
+ */
+public class IterativeTarjanSCC {
+
+    public TarjanSCC.Result compute(Graph g, Metrics metrics) {
+        int n = g.n();
+
+        // STEP 0: primitive state — no boxing, no per-component lists
+        int[] idx = new int[n];
+        int[] low = new int[n];
+        int[] nextEdge = new int[n];   // resume position of each vertex's edge scan
+        int[] call = new int[n];       // explicit DFS call stack
+        int[] stack = new int[n];      // Tarjan SCC stack
+        int[] compOf = new int[n];
+        int[] members = new int[n];
+        int[] compStart = new int[n + 1];
+        Arrays.fill(idx, -1);   // -1 means unvisited
+        Arrays.fill(compOf, -1); // -1 means not yet assigned (visited & -1 ⇒ on stack)
+
+        int index = 0, sp = 0, top = 0, comps = 0, filled = 0;
+
+        metrics.start();
+
+        // STEP 1: launch DFS for every unvisited vertex
+        for (int r = 0; r < n; r++) {
+            if (idx[r] != -1) continue;
+
+            if (Metrics.ENABLED) metrics.dfsCalls++; // METRICS: one "call" per vertex, same as recursive version
+            idx[r] = low[r] = index++;
+            stack[sp++] = r;
+            nextEdge[r] = g.begin(r);
+            call[top++] = r;
+
+            while (top > 0) {
+                int v = call[top - 1];
+
+                // STEP 2: continue scanning v's edges from where we left off
+                if (nextEdge[v] < g.end(v)) {
+                    int w = g.target(nextEdge[v]++);
+                    if (Metrics.ENABLED) metrics.edgesVisited++; // METRICS: count edge visits
+                    if (idx[w] == -1) {
+                        // TREE edge: "recurse" by pushing a frame
+                        if (Metrics.ENABLED) metrics.dfsCalls++;
+                        idx[w] = low[w] = index++;
+                        stack[sp++] = w;
+                        nextEdge[w] = g.begin(w);
+                        call[top++] = w;
+                    } else if (compOf[w] == -1) {
+                        // BACK edge to a vertex still on the SCC stack
+                        low[v] = Math.min(low[v], idx[w]);
+                    }
+                    continue;
+                }
+
+                // STEP 3: all edges done → "return" from v
+                top--;
+                if (low[v] == idx[v]) {
+                    // root of SCC → pop stack until v
+                    while (true) {
+                        int w = stack[--sp];
+                        compOf[w] = comps;
+                        members[filled++] = w;
+                        if (w == v) break;
+                    }
+                    compStart[++comps] = filled;
+                }
+                if (top > 0) {
+                    int parent = call[top - 1];
+                    low[parent] = Math.min(low[parent], low[v]); // WHY: propagate low-link to caller
+                }
+            }
+        }
+
+        metrics.stop();
+        return new TarjanSCC.Result(compOf, Arrays.copyOf(compStart, comps + 1), members);
+    }
+}
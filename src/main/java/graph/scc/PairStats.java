@@ -0,0 +1,99 @@
+package graph.scc;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from a component pair (cu → cv) to the count, min and max weight of the edges
+ * between them. Keys are packed into one long, so lookups never box or allocate.
+ */
+final class PairStats {
+    private static final long EMPTY = -1L; // component ids are non-negative, so no real key is -1
+
+    private long[] keys;
+    private int[] count, min, max;
+    private int size, mask;
+
+    PairStats(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        alloc(cap);
+    }
+
+    static long key(int cu, int cv) { return ((long) cu << 32) | (cv & 0xffffffffL); }
+    static int from(long key) { return (int) (key >>> 32); }
+    static int to(long key) { return (int) key; }
+
+    int size() { return size; }
+    int capacity() { return keys.length; }
+
+    // Iteration: slots 0..capacity()-1 with used(i)
+    boolean used(int i) { return keys[i] != EMPTY; }
+    long keyAt(int i) { return keys[i]; }
+    int countAt(int i) { return count[i]; }
+    int minAt(int i) { return min[i]; }
+    int maxAt(int i) { return max[i]; }
+
+    int find(long key) {
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    void add(long key, int w) { merge(key, 1, w, w); }
+
+    void merge(long key, int cnt, int mn, int mx) {
+        int i = hash(key);
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == key) {
+            count[i] += cnt;
+            if (mn < min[i]) min[i] = mn;
+            if (mx > max[i]) max[i] = mx;
+            return;
+        }
+        keys[i] = key; count[i] = cnt; min[i] = mn; max[i] = mx;
+        if (++size * 2 > keys.length) grow();
+    }
+
+    void set(int slot, int cnt, int mn, int mx) { count[slot] = cnt; min[slot] = mn; max[slot] = mx; }
+
+    void remove(long key) {
+        int i = find(key);
+        if (i >= 0) removeAt(i);
+    }
+
+    // WHY: backward-shift deletion keeps probe chains intact without tombstones
+    void removeAt(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) break;
+            int k = hash(keys[j]);
+            boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (stays) continue;
+            keys[i] = keys[j]; count[i] = count[j]; min[i] = min[j]; max[i] = max[j];
+            i = j;
+        }
+        keys[i] = EMPTY;
+        size--;
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void alloc(int cap) {
+        keys = new long[cap];
+        Arrays.fill(keys, EMPTY);
+        count = new int[cap]; min = new int[cap]; max = new int[cap];
+        mask = cap - 1;
+        size = 0;
+    }
+
+    private void grow() {
+        long[] k = keys; int[] c = count, lo = min, hi = max;
+        alloc(k.length << 1);
+        for (int i = 0; i < k.length; i++) if (k[i] != EMPTY) merge(k[i], c[i], lo[i], hi[i]);
+    }
+}
@@ -0,0 +1,393 @@
+package graph.scc;
+
+import common.CsrGraph;
+import common.Graph;
+import utils.Metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Multi-core SCC decomposition on a ForkJoinPool (trim → FW-BW → coloring):
+ *
+ *  1. trim: vertices with no in- or out-edges are singleton SCCs (repeated until none are left);
+ *  2. forward-backward: one FW ∩ BW search from a high-degree pivot peels off the giant SCC,
+ *     with large BFS levels expanded in parallel;
+ *  3. coloring: every remaining vertex takes the max id of the vertices reaching it (parallel label
+ *     propagation to a fixpoint); each vertex whose label is its own id is a root, and a backward
+ *     search restricted to its label is exactly its SCC. Roots have distinct labels, so these
+ *     searches run concurrently. Found SCCs are removed and coloring repeats on the rest;
+ *  4. once the remainder is small, or a coloring round settles less than 10% of it, a sequential
+ *     Tarjan restricted to the unsettled vertices finishes the job (the "Multistep" scheme).
+ *
+ * Pure recursive FW-BW degrades to O(n · #SCC) on long chains of medium SCCs, and coloring needs
+ * about one round per condensation level on deep DAGs; step 4 caps both at Tarjan's linear cost. Components are renumbered by their smallest vertex at the end,
+ * so the Result is deterministic (ids differ from Tarjan's, which no downstream pass relies on).
+ */
+public class ParallelSCC {
+    private static final int CHUNK = 4096;          // vertices per parallel task
+    private static final int PAR_FRONTIER = 8192;   // BFS levels above this are expanded in parallel
+    private static final int SERIAL_CUTOFF = 50_000; // remaining vertices below this go to sequential Tarjan
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final ForkJoinPool pool;
+
+    public ParallelSCC() { this(ForkJoinPool.commonPool()); }
+
+    public ParallelSCC(ForkJoinPool pool) { this.pool = pool; }
+
+    // Per-run state shared by all tasks
+    private Graph g;
+    private CsrGraph rev;
+    private int[] comp;    // raw component id (discovery order), -1 = not settled yet
+    private int[] label;   // BFS marks / coloring labels
+    private int[] queued;  // 1 while a vertex sits in the propagation worklist
+    private AtomicInteger nextComp;
+    private LongAdder edgesVisited, searches;
+
+    public TarjanSCC.Result compute(Graph g, Metrics metrics) {
+        int n = g.n();
+        this.g = g;
+        this.comp = new int[n];
+        this.label = new int[n];
+        this.nextComp = new AtomicInteger();
+        this.edgesVisited = new LongAdder();
+        this.searches = new LongAdder();
+        Arrays.fill(comp, -1);
+
+        metrics.start();
+        this.rev = CsrGraph.transpose(g);
+
+        // STEP 1: trim
+        int[] live = trim(n);
+
+        // STEP 2: FW-BW from the vertex with the largest in·out degree (most likely inside the giant SCC)
+        if (live.length > 0) {
+            int pivot = live[0];
+            long best = -1;
+            for (int v : live) {
+                long score = (long) g.outDegree(v) * rev.outDegree(v);
+                if (score > best) { best = score; pivot = v; }
+            }
+            forwardBackward(pivot, live);
+            live = compactLive(live);
+        }
+
+        // STEP 3: coloring rounds; once the rest is small or a round settles < 10% of it, finish with Tarjan
+        this.queued = new int[n];
+        while (live.length > 0) {
+            if (live.length < SERIAL_CUTOFF) { tarjanRest(live); break; }
+            int before = live.length;
+            colorRound(live);
+            live = compactLive(live);
+            if (live.length > 0 && before - live.length < before / 10) { tarjanRest(live); break; }
+        }
+
+        // STEP 4: deterministic renumbering + flat membership
+        TarjanSCC.Result res = renumber(n);
+        metrics.stop();
+
+        metrics.dfsCalls = searches.sum();  // METRICS: BFS searches (FW, BW, one per coloring root)
+        metrics.edgesVisited = edgesVisited.sum(); // METRICS: trim + BFS + propagation
+        this.g = null; this.rev = null; this.comp = this.label = this.queued = null;
+        return res;
+    }
+
+    private int[] trim(int n) {
+        int[] in = new int[n], out = new int[n], queue = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            out[v] = g.outDegree(v);
+            in[v] = rev.outDegree(v);
+            if (in[v] == 0 || out[v] == 0) { comp[v] = -2; queue[tail++] = v; }
+        }
+        long scanned = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            comp[v] = nextComp.getAndIncrement();
+            // WHY: removing v can zero the degree of its neighbours
+            for (int e = g.begin(v); e < g.end(v); e++, scanned++) {
+                int w = g.target(e);
+                if (comp[w] == -1 && --in[w] == 0) { comp[w] = -2; queue[tail++] = w; }
+            }
+            for (int e = rev.begin(v); e < rev.end(v); e++, scanned++) {
+                int w = rev.target(e);
+                if (comp[w] == -1 && --out[w] == 0) { comp[w] = -2; queue[tail++] = w; }
+            }
+        }
+        edgesVisited.add(scanned);
+        return compactLive(null);
+    }
+
+    private int[] compactLive(int[] live) {
+        int cnt = 0;
+        if (live == null) {
+            int[] out = new int[comp.length];
+            for (int v = 0; v < comp.length; v++) if (comp[v] == -1) out[cnt++] = v;
+            return Arrays.copyOf(out, cnt);
+        }
+        for (int v : live) if (comp[v] == -1) live[cnt++] = v;
+        return Arrays.copyOf(live, cnt);
+    }
+
+    // label marks: 1 = forward-reached, 2 = forward & backward reached (the SCC)
+    private void forwardBackward(int pivot, int[] live) {
+        for (int v : live) label[v] = 0;
+        bfs(g, pivot, 0, 1);
+        bfs(rev, pivot, 1, 2);
+        int id = nextComp.getAndIncrement();
+        for (int v : live) if (label[v] == 2) comp[v] = id;
+    }
+
+    /** Level-synchronous BFS over unsettled vertices, relabelling from → to; large levels run in parallel. */
+    private void bfs(Graph adj, int start, int from, int to) {
+        searches.increment();
+        int[] frontier = {start};
+        int size = 1;
+        label[start] = to;
+        while (size > 0) {
+            if (size >= PAR_FRONTIER && pool.getParallelism() > 1) {
+                int[] cur = frontier;
+                ConcurrentLinkedQueue<int[]> parts = new ConcurrentLinkedQueue<>();
+                parallelFor(0, size, (lo, hi) -> {
+                    int[] buf = new int[64];
+                    int cnt = 0;
+                    long scanned = 0;
+                    for (int i = lo; i < hi; i++) {
+                        int v = cur[i];
+                        for (int e = adj.begin(v), end = adj.end(v); e < end; e++, scanned++) {
+                            int w = adj.target(e);
+                            if (comp[w] == -1 && INTS.compareAndSet(label, w, from, to)) {
+                                if (cnt == buf.length) buf = Arrays.copyOf(buf, cnt * 2);
+                                buf[cnt++] = w;
+                            }
+                        }
+                    }
+                    parts.add(Arrays.copyOf(buf, cnt));
+                    return scanned;
+                });
+                size = 0;
+                for (int[] p : parts) size += p.length;
+                frontier = new int[size];
+                int at = 0;
+                for (int[] p : parts) { System.arraycopy(p, 0, frontier, at, p.length); at += p.length; }
+            } else {
+                int[] next = new int[Math.max(16, size)];
+                int cnt = 0;
+                long scanned = 0;
+                for (int i = 0; i < size; i++) {
+                    int v = frontier[i];
+                    for (int e = adj.begin(v), end = adj.end(v); e < end; e++, scanned++) {
+                        int w = adj.target(e);
+                        if (comp[w] == -1 && label[w] == from) {
+                            label[w] = to;
+                            if (cnt == next.length) next = Arrays.copyOf(next, cnt * 2);
+                            next[cnt++] = w;
+                        }
+                    }
+                }
+                edgesVisited.add(scanned);
+                frontier = next;
+                size = cnt;
+            }
+        }
+    }
+
+    private void colorRound(int[] live) {
+        // STEP 3a: label = own id, then push labels forward along a worklist of vertices whose label rose
+        for (int v : live) { label[v] = v; queued[v] = 1; }
+        int[] frontier = live.clone();
+        int size = frontier.length;
+        while (size > 0) {
+            if (size >= PAR_FRONTIER && pool.getParallelism() > 1) {
+                int[] cur = frontier;
+                ConcurrentLinkedQueue<int[]> parts = new ConcurrentLinkedQueue<>();
+                parallelFor(0, size, (lo, hi) -> {
+                    int[] buf = new int[64];
+                    int cnt = 0;
+                    long scanned = 0;
+                    for (int i = lo; i < hi; i++) {
+                        int v = cur[i];
+                        INTS.setVolatile(queued, v, 0); // clear before reading the label: a later raise re-queues v
+                        int lv = (int) INTS.getVolatile(label, v);
+                        for (int e = g.begin(v), end = g.end(v); e < end; e++, scanned++) {
+                            int w = g.target(e);
+                            if (comp[w] != -1 || !raise(w, lv)) continue;
+                            if (INTS.compareAndSet(queued, w, 0, 1)) {
+                                if (cnt == buf.length) buf = Arrays.copyOf(buf, cnt * 2);
+                                buf[cnt++] = w;
+                            }
+                        }
+                    }
+                    parts.add(Arrays.copyOf(buf, cnt));
+                    return scanned;
+                });
+                size = 0;
+                for (int[] p : parts) size += p.length;
+                frontier = new int[size];
+                int at = 0;
+                for (int[] p : parts) { System.arraycopy(p, 0, frontier, at, p.length); at += p.length; }
+            } else {
+                // small frontier: finish with a sequential FIFO worklist (each vertex queued at most once)
+                int cap = comp.length + 1, head = 0, tail = size;
+                int[] ring = new int[cap];
+                System.arraycopy(frontier, 0, ring, 0, size);
+                long scanned = 0;
+                while (head != tail) {
+                    int v = ring[head];
+                    head = head + 1 == cap ? 0 : head + 1;
+                    queued[v] = 0;
+                    int lv = label[v];
+                    for (int e = g.begin(v), end = g.end(v); e < end; e++, scanned++) {
+                        int w = g.target(e);
+                        if (comp[w] != -1 || label[w] >= lv) continue;
+                        label[w] = lv;
+                        if (queued[w] == 0) {
+                            queued[w] = 1;
+                            ring[tail] = w;
+                            tail = tail + 1 == cap ? 0 : tail + 1;
+                        }
+                    }
+                }
+                edgesVisited.add(scanned);
+                size = 0;
+            }
+        }
+
+        // STEP 3b: each root's SCC = vertices with its label that reach it (backward search)
+        int roots = 0;
+        for (int v : live) if (label[v] == v) roots++;
+        int[] rootList = new int[roots];
+        roots = 0;
+        for (int v : live) if (label[v] == v) rootList[roots++] = v;
+
+        parallelFor(0, rootList.length, (lo, hi) -> {
+            long scanned = 0;
+            int[] queue = new int[16];
+            for (int i = lo; i < hi; i++) {
+                int r = rootList[i];
+                searches.increment();
+                int id = nextComp.getAndIncrement();
+                int head = 0, tail = 0;
+                comp[r] = id;
+                queue[tail++] = r;
+                while (head < tail) {
+                    int v = queue[head++];
+                    for (int e = rev.begin(v), end = rev.end(v); e < end; e++, scanned++) {
+                        int w = rev.target(e);
+                        // only this root's task touches vertices labelled r
+                        if (label[w] == r && comp[w] == -1) {
+                            comp[w] = id;
+                            if (tail == queue.length) queue = Arrays.copyOf(queue, tail * 2);
+                            queue[tail++] = w;
+                        }
+                    }
+                }
+            }
+            return scanned;
+        });
+    }
+
+    // WHY: CAS loop = atomic max; another task may be raising the same label
+    private boolean raise(int w, int lv) {
+        int lw = (int) INTS.getVolatile(label, w);
+        while (lw < lv) {
+            if (INTS.compareAndSet(label, w, lw, lv)) return true;
+            lw = (int) INTS.getVolatile(label, w);
+        }
+        return false;
+    }
+
+    // Sequential iterative Tarjan restricted to unsettled vertices (settled ones are whole SCCs, so they can be dropped)
+    private void tarjanRest(int[] live) {
+        int n = comp.length;
+        int[] idx = new int[n], low = new int[n], nextEdge = new int[n], call = new int[n], stack = new int[n];
+        Arrays.fill(idx, -1);
+        int index = 0, sp = 0;
+        long scanned = 0;
+        for (int r : live) {
+            if (idx[r] != -1) continue;
+            searches.increment();
+            int top = 0;
+            idx[r] = low[r] = index++;
+            stack[sp++] = r;
+            nextEdge[r] = g.begin(r);
+            call[top++] = r;
+            while (top > 0) {
+                int v = call[top - 1];
+                if (nextEdge[v] < g.end(v)) {
+                    int w = g.target(nextEdge[v]++);
+                    scanned++;
+                    if (comp[w] != -1) continue;       // settled earlier or already popped
+                    if (idx[w] == -1) {
+                        idx[w] = low[w] = index++;
+                        stack[sp++] = w;
+                        nextEdge[w] = g.begin(w);
+                        call[top++] = w;
+                    } else {
+                        low[v] = Math.min(low[v], idx[w]); // visited and unsettled ⇒ on the stack
+                    }
+                    continue;
+                }
+                top--;
+                if (low[v] == idx[v]) {
+                    int id = nextComp.getAndIncrement();
+                    while (true) {
+                        int w = stack[--sp];
+                        comp[w] = id;
+                        if (w == v) break;
+                    }
+                }
+                if (top > 0) {
+                    int parent = call[top - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        edgesVisited.add(scanned);
+    }
+
+    interface RangeBody { long run(int lo, int hi); }
+
+    // Splits [from, to) into CHUNK-sized tasks on the pool; bodies return edges scanned
+    private void parallelFor(int from, int to, RangeBody body) {
+        if (to - from <= CHUNK || pool.getParallelism() == 1) {
+            edgesVisited.add(body.run(from, to));
+            return;
+        }
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int lo = from; lo < to; lo += CHUNK) {
+            final int a = lo, b = Math.min(to, lo + CHUNK);
+            tasks.add(new RecursiveAction() {
+                @Override protected void compute() { edgesVisited.add(body.run(a, b)); }
+            });
+        }
+        if (ForkJoinTask.getPool() == pool) ForkJoinTask.invokeAll(tasks);
+        else pool.invoke(new RecursiveAction() {
+            @Override protected void compute() { invokeAll(tasks); }
+        });
+    }
+
+    private TarjanSCC.Result renumber(int n) {
+        int comps = nextComp.get();
+        int[] id = new int[comps];
+        Arrays.fill(id, -1);
+        int next = 0;
+        int[] compOf = new int[n];
+        int[] compStart = new int[comps + 1];
+        for (int v = 0; v < n; v++) {
+            int r = comp[v];
+            if (id[r] == -1) id[r] = next++;
+            compOf[v] = id[r];
+            compStart[compOf[v] + 1]++;
+        }
+        for (int c = 0; c < comps; c++) compStart[c + 1] += compStart[c];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(compStart, comps);
+        for (int v = 0; v < n; v++) members[fill[compOf[v]]++] = v;
+        return new TarjanSCC.Result(compOf, compStart, members);
+    }
+}
@@ -0,0 +1,148 @@
+package graph.scc;
+
+import common.DirectedGraph;
+import common.EdgeStream;
+import utils.Metrics;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Semi-external SCC decomposition: the edges stay on disk (an EdgeStream re-read once per pass) and
+ * only O(n) ints live on the heap. Same trim → coloring → Tarjan scheme as ParallelSCC, with
+ * every step rephrased as sequential edge passes:
+ *
+ *  1. trim: one pass counts in/out-degrees among unsettled vertices; those with either at zero are
+ *     singleton SCCs (repeated while it keeps settling at least 1% of the rest);
+ *  2. coloring: passes propagate the max vertex id forward to a fixpoint, then passes propagate
+ *     "reaches its root" backward inside each color; marked vertices are exactly the SCCs of the roots
+ *     and are settled. Updates apply within the pass, so edges stored in a topological-ish order
+ *     converge in a few passes;
+ *  3. once the unsettled vertices' edges fit in memoryEdges, one more pass loads just those edges and
+ *     iterative Tarjan finishes in memory.
+ *
+ * Components are renumbered by their smallest vertex, as in ParallelSCC.
+ */
+public class SemiExternalSCC {
+    public static final long DEFAULT_MEMORY_EDGES = 1L << 22; // ~48 MB of staged edges for the Tarjan finish
+    private static final int SETTLED = -1;
+
+    private final long memoryEdges;
+    private int passes;
+
+    public SemiExternalSCC() { this(DEFAULT_MEMORY_EDGES); }
+
+    /** @param memoryEdges edge count of the unsettled remainder that may be loaded for an in-memory finish (0 → never) */
+    public SemiExternalSCC(long memoryEdges) { this.memoryEdges = memoryEdges; }
+
+    // Full passes over the edge stream made by the last compute()
+    public int passes() { return passes; }
+
+    public TarjanSCC.Result compute(EdgeStream in, Metrics metrics) throws IOException {
+        int n = in.n();
+        passes = 0;
+        int[] comp = new int[n];       // root vertex of the settled SCC, or SETTLED while still open
+        int[] color = new int[n];      // coloring label; reused as in/out degree scratch during trims
+        int[] outDeg = new int[n];
+        boolean[] mark = new boolean[n];
+        Arrays.fill(comp, SETTLED);
+        int open = n;
+
+        metrics.start();
+        while (open > 0) {
+            // STEP 1: trim pass (also measures the open subgraph for the in-memory cutoff)
+            long openEdges = trimPass(in, comp, color, outDeg, metrics);
+            if (openEdges <= memoryEdges) {
+                finishInMemory(in, comp, open, openEdges, metrics);
+                break;
+            }
+            int settled = 0;
+            for (int v = 0; v < n; v++)
+                if (comp[v] == SETTLED && (color[v] == 0 || outDeg[v] == 0)) { comp[v] = v; settled++; }
+            open -= settled;
+            if (settled * 100L >= open && open > 0) continue; // WHY: trimming still pays; another pass is cheaper than coloring
+            if (open == 0) break;
+
+            // STEP 2a: forward max-label propagation among open vertices
+            for (int v = 0; v < n; v++) color[v] = v;
+            boolean[] changed = {true};
+            while (changed[0]) {
+                changed[0] = false;
+                pass(in, metrics, (u, v, w) -> {
+                    if (comp[u] == SETTLED && comp[v] == SETTLED && color[u] > color[v]) { color[v] = color[u]; changed[0] = true; }
+                });
+            }
+
+            // STEP 2b: backward reachability to each root, restricted to its color
+            for (int v = 0; v < n; v++) mark[v] = comp[v] == SETTLED && color[v] == v;
+            changed[0] = true;
+            while (changed[0]) {
+                changed[0] = false;
+                pass(in, metrics, (u, v, w) -> {
+                    if (mark[v] && !mark[u] && comp[u] == SETTLED && color[u] == color[v]) { mark[u] = true; changed[0] = true; }
+                });
+            }
+            for (int v = 0; v < n; v++) if (mark[v]) { comp[v] = color[v]; mark[v] = false; open--; }
+        }
+        metrics.stop();
+        return renumber(comp);
+    }
+
+    // In-degree into color[], out-degree into outDeg[], both among open vertices; returns the open edge count
+    private long trimPass(EdgeStream in, int[] comp, int[] inDeg, int[] outDeg, Metrics metrics) throws IOException {
+        Arrays.fill(inDeg, 0);
+        Arrays.fill(outDeg, 0);
+        long[] edges = {0};
+        pass(in, metrics, (u, v, w) -> {
+            if (comp[u] != SETTLED || comp[v] != SETTLED || u == v) return; // EDGE: self-loops never join SCCs
+            inDeg[v]++; outDeg[u]++; edges[0]++;
+        });
+        return edges[0];
+    }
+
+    // STEP 3: load the open subgraph (relabelled densely) and run iterative Tarjan on it
+    private void finishInMemory(EdgeStream in, int[] comp, int open, long openEdges, Metrics metrics) throws IOException {
+        int n = comp.length;
+        int[] local = new int[n], global = new int[open];
+        int k = 0;
+        for (int v = 0; v < n; v++) if (comp[v] == SETTLED) { local[v] = k; global[k++] = v; }
+        DirectedGraph sub = new DirectedGraph(open, (int) Math.min(openEdges, Integer.MAX_VALUE - 8));
+        pass(in, metrics, (u, v, w) -> {
+            if (comp[u] == SETTLED && comp[v] == SETTLED && u != v) sub.addEdge(local[u], local[v], w);
+        });
+        Metrics inner = new Metrics(); // WHY: Tarjan restarts its own clock; only its counters are folded in
+        TarjanSCC.Result r = new IterativeTarjanSCC().compute(sub.csr(), inner);
+        metrics.dfsCalls += inner.dfsCalls;
+        metrics.edgesVisited += inner.edgesVisited;
+        for (int c = 0; c < r.count(); c++) {
+            int root = global[r.members[r.compStart[c]]];
+            for (int i = r.compStart[c]; i < r.compStart[c + 1]; i++) comp[global[r.members[i]]] = root;
+        }
+    }
+
+    private void pass(EdgeStream in, Metrics metrics, EdgeStream.Sink sink) throws IOException {
+        in.scan(sink);
+        passes++;
+        if (Metrics.ENABLED) metrics.edgesVisited += in.m();
+    }
+
+    private static TarjanSCC.Result renumber(int[] comp) {
+        int n = comp.length;
+        int[] id = new int[n];
+        Arrays.fill(id, -1);
+        int comps = 0;
+        int[] compOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            int r = comp[v];
+            if (id[r] == -1) id[r] = comps++;
+            compOf[v] = id[r];
+        }
+        int[] compStart = new int[comps + 1];
+        for (int v = 0; v < n; v++) compStart[compOf[v] + 1]++;
+        for (int c = 0; c < comps; c++) compStart[c + 1] += compStart[c];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(compStart, comps);
+        for (int v = 0; v < n; v++) members[fill[compOf[v]]++] = v;
+        return new TarjanSCC.Result(compOf, compStart, members);
+    }
+}
@@ -1,7 +1,6 @@
 package graph.scc;
 
-import common.DirectedGraph;
-import common.Edge;
+import common.Graph;
 import utils.Metrics;
 
 import java.util.*;
@@ -11,8 +10,45 @@ public class TarjanSCC {
     public static class Result {
         public final List<List<Integer>> components;
         public final int[] compOf; // component id for each vertex
+        // Flat membership: vertices of component c are members[compStart[c] .. compStart[c+1])
+        public final int[] compStart;
+        public final int[] members;
+
         public Result(List<List<Integer>> comps, int[] compOf) {
             this.components = comps; this.compOf = compOf;
+            this.compStart = new int[comps.size() + 1];
+            this.members = new int[compOf.length];
+            int p = 0;
+            for (int c = 0; c < comps.size(); c++) {
+                for (int v : comps.get(c)) members[p++] = v;
+                compStart[c + 1] = p;
+            }
+        }
+
+        public Result(int[] compOf, int[] compStart, int[] members) {
+            this.compOf = compOf; this.compStart = compStart; this.members = members;
+            this.components = new FlatComponents(compStart, members);
+        }
+
+        public int count() { return compStart.length - 1; }
+
+        public int size(int c) { return compStart[c + 1] - compStart[c]; }
+    }
+
+    // Read-only List<List<Integer>> view over flat arrays (boxes only when callers iterate it)
+    private static final class FlatComponents extends AbstractList<List<Integer>> {
+        private final int[] start, members;
+        FlatComponents(int[] start, int[] members) { this.start = start; this.members = members; }
+        @Override public int size() { return start.length - 1; }
+        @Override public List<Integer> get(int c) {
+            final int from = start[c], len = start[c + 1] - from;
+            return new AbstractList<Integer>() {
+                @Override public Integer get(int i) {
+                    if (i < 0 || i >= len) throw new IndexOutOfBoundsException(i);
+                    return members[from + i];
+                }
+                @Override public int size() { return len; }
+            };
         }
     }
 
@@ -24,9 +60,9 @@ public class TarjanSCC {
     private List<List<Integer>> comps;
     private int[] compOf;
     private Metrics metrics;
-    private DirectedGraph g;
+    private Graph g;
 
-    public Result compute(DirectedGraph g, Metrics metrics) {
+    public Result compute(Graph g, Metrics metrics) {
         this.g = g;
         this.metrics = metrics;
         int n = g.n();
@@ -53,7 +89,7 @@ public class TarjanSCC {
     }
 
     private void dfs(int v) {
-        metrics.dfsCalls++; // METRICS: count DFS calls
+        if (Metrics.ENABLED) metrics.dfsCalls++; // METRICS: count DFS calls
 
         // STEP 2: assign discovery index and low-link value
         idx[v] = low[v] = index++;
@@ -61,9 +97,9 @@ public class TarjanSCC {
         onStack[v] = true;
 
         // STEP 3: explore neighbors
-        for (Edge e : g.neighbors(v)) {
-            metrics.edgesVisited++; // METRICS: count edge visits
-            int w = e.v;
+        for (int e = g.begin(v), end = g.end(v); e < end; e++) {
+            if (Metrics.ENABLED) metrics.edgesVisited++; // METRICS: count edge visits
+            int w = g.target(e);
             if (idx[w] == -1) {
                 // TREE edge: DFS deeper
                 dfs(w);
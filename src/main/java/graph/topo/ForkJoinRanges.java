@@ -0,0 +1,33 @@
+package graph.topo;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Chunked parallel loop shared by the level-synchronous passes: one fork/join task
+ * per chunk of an index range, joined before returning.
+ */
+public final class ForkJoinRanges {
+
+    public interface RangeBody { void run(int lo, int hi); }
+
+    private ForkJoinRanges() {}
+
+    // Splits [from, to) into chunk-sized tasks on the pool
+    public static void parallelFor(ForkJoinPool pool, int from, int to, int chunk, RangeBody body) {
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int lo = from; lo < to; lo += chunk) {
+            final int a = lo, b = Math.min(to, lo + chunk);
+            tasks.add(new RecursiveAction() {
+                @Override protected void compute() { body.run(a, b); }
+            });
+        }
+        // WHY: a caller already running on this pool forks in place instead of blocking a worker on invoke
+        if (ForkJoinTask.getPool() == pool) ForkJoinTask.invokeAll(tasks);
+        else pool.invoke(new RecursiveAction() {
+            @Override protected void compute() { invokeAll(tasks); }
+        });
+    }
+}
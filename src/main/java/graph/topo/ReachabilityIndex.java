@@ -0,0 +1,223 @@
+package graph.topo;
+
+import common.Graph;
+import utils.Metrics;
+
+import java.util.*;
+
+/**
+ * Reachability queries on a DAG (usually the condensation DAG), answered on original tasks via compOf.
+ *
+ * Two layouts, picked by a memory budget:
+ *  - CLOSURE: one bitset row per vertex (transitive closure, built in reverse topological order by OR-ing
+ *    successor rows). O(1) queries, c²/8 bytes.
+ *  - INTERVALS: GRAIL labels. Each of k randomized DFS traversals gives every vertex an interval
+ *    [min post-order below it, its own post-order]; u reaches v only if every interval of v nests in u's.
+ *    A failed nesting or topological rank answers "no" in O(k); otherwise a DFS from u pruned by the same
+ *    test decides. O(k·c) memory, near-constant time for the typical negative query.
+ *
+ * Immutable after construction; queries are thread-safe. The pruned DFS allocates its own scratch, sized by the
+ * vertices it actually visits rather than by c, so a query on a fresh (e.g. virtual) thread stays cheap.
+ */
+public class ReachabilityIndex {
+    public static final long DEFAULT_CLOSURE_BYTES = 64L << 20;
+    public static final int DEFAULT_LABELS = 3;
+
+    public enum Mode { CLOSURE, INTERVALS }
+
+    private final Graph g;
+    private final int n;
+    private final Mode mode;
+    private final int[] rank;      // topological position
+    private final long[] closure;  // CLOSURE: row u = words [u*words, (u+1)*words)
+    private final int words;
+    private final int[] low, post; // INTERVALS: label i of v at [i*n + v]
+    private final int labels;
+
+    public ReachabilityIndex(Graph dag) { this(dag, null, DEFAULT_CLOSURE_BYTES, DEFAULT_LABELS, 42L, new Metrics()); }
+
+    /**
+     * @param topo         topological order of dag (null → TopologicalSortKahn.orderArray)
+     * @param closureBytes closure bitsets are used when they fit in this many bytes, otherwise intervals
+     * @param labels       number of GRAIL interval labels (more = more negatives answered without search)
+     */
+    public ReachabilityIndex(Graph dag, int[] topo, long closureBytes, int labels, long seed, Metrics metrics) {
+        this.g = dag;
+        this.n = dag.n();
+        if (topo == null) topo = TopologicalSortKahn.orderArray(dag, new Metrics());
+        if (topo.length != n) throw new IllegalArgumentException("Topological order must cover all " + n + " vertices");
+        this.rank = new int[n];
+        for (int i = 0; i < n; i++) rank[topo[i]] = i;
+        this.words = (n + 63) >>> 6;
+
+        metrics.start();
+        long cells = (long) n * words;
+        if (cells * 8 <= closureBytes && cells <= Integer.MAX_VALUE - 8) { // EDGE: one long[] holds at most ~2^31 words
+            // STEP 1a: closure rows in reverse topo order; each successor row is final when OR-ed in
+            this.mode = Mode.CLOSURE;
+            this.closure = new long[(int) cells];
+            for (int i = n - 1; i >= 0; i--) {
+                int u = topo[i], base = u * words;
+                closure[base + (u >>> 6)] |= 1L << u;
+                for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                    int vb = dag.target(e) * words;
+                    for (int w = 0; w < words; w++) closure[base + w] |= closure[vb + w];
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                }
+            }
+            this.labels = 0;
+            this.low = this.post = null;
+        } else {
+            // STEP 1b: k randomized post-order traversals → nested intervals
+            this.mode = Mode.INTERVALS;
+            this.closure = null;
+            this.labels = Math.max(1, labels);
+            this.low = new int[this.labels * n];
+            this.post = new int[this.labels * n];
+            SplittableRandom rnd = new SplittableRandom(seed);
+            for (int i = 0; i < this.labels; i++) label(i, rnd, metrics);
+        }
+        metrics.stop();
+    }
+
+    // One GRAIL labeling: iterative DFS from every source, children in random order
+    private void label(int li, SplittableRandom rnd, Metrics metrics) {
+        int off = li * n;
+        int[] indeg = new int[n];
+        for (int e = 0; e < g.m(); e++) indeg[g.target(e)]++;
+        int[] roots = new int[n];
+        int nr = 0;
+        for (int v = 0; v < n; v++) if (indeg[v] == 0) roots[nr++] = v;
+        shuffle(roots, nr, rnd);
+
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n], next = new int[n];
+        int counter = 0;
+        for (int r = 0; r < nr; r++) {
+            int root = roots[r], sp = 0;
+            seen[root] = true; stack[sp++] = root; next[root] = 0;
+            low[off + root] = Integer.MAX_VALUE;
+            while (sp > 0) {
+                int u = stack[sp - 1];
+                int deg = g.end(u) - g.begin(u);
+                if (next[u] < deg) {
+                    // WHY: a different child order per labeling makes the labels' false positives largely independent
+                    int v = g.target(g.begin(u) + permuted(u, next[u]++, deg, li));
+                    if (Metrics.ENABLED) metrics.edgesVisited++;
+                    if (!seen[v]) {
+                        seen[v] = true; low[off + v] = Integer.MAX_VALUE; next[v] = 0;
+                        stack[sp++] = v;
+                    } else {
+                        low[off + u] = Math.min(low[off + u], low[off + v]); // EDGE: finished child (DAG: no back edges)
+                    }
+                    continue;
+                }
+                // all children done → post-order number, then fold into the parent
+                post[off + u] = counter++;
+                low[off + u] = Math.min(low[off + u], post[off + u]);
+                sp--;
+                if (sp > 0) {
+                    int p = stack[sp - 1];
+                    low[off + p] = Math.min(low[off + p], low[off + u]);
+                }
+            }
+        }
+    }
+
+    // k-th child of u under a per-(u, label) rotation; cheap, allocation-free stand-in for a shuffle
+    private static int permuted(int u, int k, int deg, int li) {
+        if (li == 0) return k;
+        long h = (u * 0x9E3779B97F4A7C15L) ^ (li * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 29;
+        int start = (int) Math.floorMod(h, (long) deg);
+        return (li & 1) == 1 ? (start + k) % deg : Math.floorMod(start - k, deg); // odd labels rotate forward, even backward
+    }
+
+    private static void shuffle(int[] a, int len, SplittableRandom rnd) {
+        for (int i = len - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1), t = a[i];
+            a[i] = a[j]; a[j] = t;
+        }
+    }
+
+    public Mode mode() { return mode; }
+
+    // Approximate index size in bytes (closure rows or interval labels, plus ranks)
+    public long bytes() {
+        return 4L * n + (mode == Mode.CLOSURE ? 8L * closure.length : 8L * labels * n);
+    }
+
+    // Does DAG vertex u reach v (u == v counts)?
+    public boolean reaches(int u, int v) {
+        if (mode == Mode.CLOSURE) return (closure[u * words + (v >>> 6)] & (1L << v)) != 0;
+        if (u == v) return true;
+        if (!mayReach(u, v)) return false;
+
+        // STEP 2: DFS from u, only into children whose labels still allow v
+        // WHY: the labels prune the search to a tiny fraction of c, so scratch grows with it instead of being O(c)
+        VisitedSet seen = new VisitedSet();
+        int[] stack = new int[16];
+        int sp = 0;
+        stack[sp++] = u; seen.add(u);
+        while (sp > 0) {
+            int x = stack[--sp];
+            for (int e = g.begin(x), end = g.end(x); e < end; e++) {
+                int y = g.target(e);
+                if (y == v) return true;
+                if (mayReach(y, v) && seen.add(y)) {
+                    if (sp == stack.length) stack = Arrays.copyOf(stack, sp << 1);
+                    stack[sp++] = y;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Open-addressing int set (linear probing, -1 = empty), doubled at half load
+    private static final class VisitedSet {
+        private int[] keys = newTable(32);
+        private int size;
+
+        private static int[] newTable(int cap) {
+            int[] t = new int[cap];
+            Arrays.fill(t, -1);
+            return t;
+        }
+
+        // true if x was not present
+        boolean add(int x) {
+            int mask = keys.length - 1;
+            for (int i = (x * 0x9E3779B9) >>> 7 & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == x) return false;
+                if (keys[i] == -1) {
+                    keys[i] = x;
+                    if (++size * 2 > keys.length) grow();
+                    return true;
+                }
+            }
+        }
+
+        private void grow() {
+            int[] old = keys;
+            keys = newTable(old.length << 1);
+            int mask = keys.length - 1;
+            for (int x : old) {
+                if (x == -1) continue;
+                int i = (x * 0x9E3779B9) >>> 7 & mask;
+                while (keys[i] != -1) i = (i + 1) & mask;
+                keys[i] = x;
+            }
+        }
+    }
+
+    // Necessary conditions: topological rank and every interval of v nested in u's
+    private boolean mayReach(int u, int v) {
+        if (rank[u] > rank[v]) return false;
+        for (int i = 0, off = 0; i < labels; i++, off += n)
+            if (low[off + v] < low[off + u] || post[off + v] > post[off + u]) return false;
+        return true;
+    }
+
+    // Does task `from` reach task `to` in the original graph? (same SCC → always)
+    public boolean reachesTask(int[] compOf, int from, int to) { return reaches(compOf[from], compOf[to]); }
+}
@@ -1,47 +1,57 @@
 package graph.topo;
 
-import common.DirectedGraph;
-import common.Edge;
+import common.Graph;
+import common.GraphUtils;
 import utils.Metrics;
 
 import java.util.*;
 
 public class TopologicalSortKahn {
 
-    public static List<Integer> order(DirectedGraph g, Metrics metrics) {
+    public static List<Integer> order(Graph g, Metrics metrics) {
+        int[] ord = orderArray(g, metrics);
+        List<Integer> list = new ArrayList<>(ord.length);
+        for (int u : ord) list.add(u);
+        return list;
+    }
+
+    /**
+     * Same order as {@link #order} as a primitive array, so it can be computed once and handed to
+     * every DAG pass (DagShortestPaths, DagLongestPath, MultiSourceDagShortestPaths) over the same graph.
+     */
+    public static int[] orderArray(Graph g, Metrics metrics) {
         int n = g.n();
-        int[] indeg = new int[n];
 
         // STEP 1: compute indegree for each vertex
         // WHY: indegree = number of incoming edges; 0 means no prerequisites
-        for (Edge e : g.getEdges()) indeg[e.v]++;
+        int[] indeg = GraphUtils.indegrees(g);
 
         // STEP 2: enqueue all vertices with indegree 0
-        Deque<Integer> q = new ArrayDeque<>();
+        // WHY: every vertex is enqueued at most once, so the output array doubles as the FIFO queue
+        int[] ord = new int[n];
+        int head = 0, tail = 0;
         for (int i = 0; i < n; i++) {
             if (indeg[i] == 0) {
-                q.add(i);
-                metrics.topoPushes++; // METRICS: count initial queue pushes
+                ord[tail++] = i;
+                if (Metrics.ENABLED) metrics.topoPushes++; // METRICS: count initial queue pushes
             }
         }
 
-        List<Integer> ord = new ArrayList<>(n);
         metrics.start();
 
         // STEP 3: process queue until empty
-        while (!q.isEmpty()) {
-            int u = q.remove();
-            metrics.topoPops++; // METRICS: count nodes popped (processed)
-            ord.add(u);
+        while (head < tail) {
+            int u = ord[head++];
+            if (Metrics.ENABLED) metrics.topoPops++; // METRICS: count nodes popped (processed)
 
             // STEP 4: "remove" u by decreasing indegree of its neighbors
-            for (Edge e : g.neighbors(u)) {
-                int v = e.v;
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
                 indeg[v]--;
                 // WHEN indegree becomes 0 → all dependencies processed
                 if (indeg[v] == 0) {
-                    q.add(v);
-                    metrics.topoPushes++; // METRICS: count new pushes
+                    ord[tail++] = v;
+                    if (Metrics.ENABLED) metrics.topoPushes++; // METRICS: count new pushes
                 }
             }
         }
@@ -49,9 +59,9 @@ public class TopologicalSortKahn {
         metrics.stop();
 
         // STEP 5: verify DAG (if not all vertices processed → cycle exists)
-        if (ord.size() != n) throw new IllegalStateException("Graph is not a DAG");
+        if (tail != n) throw new IllegalStateException("Graph is not a DAG");
 
         // STEP 6: return valid topological order
         return ord;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package graph.topo;
+
+import common.CsrGraph;
+import common.Graph;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Transitive reduction of a DAG: drops every edge u→v for which a longer path u ⇝ v exists. The result
+ * has the same reachability (so the same topological orders and the same execution waves) with fewer
+ * edges. Edge weights of the kept edges are carried over, but weighted longest/shortest paths must keep
+ * using the unreduced DAG: a removed edge can be heavier than the detour that implies it.
+ *
+ * Bitset algorithm over column blocks: for a block of target vertices, every vertex gets a row
+ * desc(u) = descendants of u inside the block. Walking the level structure from the last level back,
+ * via(u) = OR of desc(w) over successors w is exactly "reachable by a path of ≥ 2 edges", so u→v is
+ * redundant iff v ∈ via(u); then desc(u) = via(u) ∪ succ(u). Vertices of one level only read rows of
+ * later levels, so wide levels are split over a ForkJoinPool. Column blocks bound memory to
+ * n · blockWords longs whatever the DAG size.
+ */
+public class TransitiveReduction {
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    private static final int CHUNK = 1024;      // vertices per parallel task
+    private static final int PAR_LEVEL = 2048;  // narrower levels run on the calling thread
+
+    public static class Result {
+        public final CsrGraph reduced;
+        public final int removed;        // edges dropped from the input
+        public final boolean[] redundant; // per input edge index
+        public final double levelSortMs;  // wall time of the level sort inside reduce(), indegrees included; 0 when passed in
+        public Result(CsrGraph reduced, int removed, boolean[] redundant, double levelSortMs) {
+            this.reduced = reduced; this.removed = removed; this.redundant = redundant; this.levelSortMs = levelSortMs;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final long maxBytes;
+
+    public TransitiveReduction() { this(ForkJoinPool.commonPool(), DEFAULT_MAX_BYTES); }
+
+    /** @param maxBytes budget for one block of descendant rows (at least one 64-column block is always used) */
+    public TransitiveReduction(ForkJoinPool pool, long maxBytes) { this.pool = pool; this.maxBytes = maxBytes; }
+
+    /**
+     * @param levels  level structure of dag (null → computed on the pool)
+     * @param metrics times the whole reduction: level sort, bitset passes and the CSR compaction
+     */
+    public Result reduce(Graph dag, ParallelTopologicalSort.Result levels, Metrics metrics) {
+        int n = dag.n(), m = dag.m();
+        metrics.start();
+        long sortNanos = 0;
+        if (levels == null) {
+            // WHY: the sort's own timer starts after its indegree pass; the reduction pays for both
+            long t0 = System.nanoTime();
+            levels = new ParallelTopologicalSort(pool).sort(dag, new Metrics());
+            sortNanos = System.nanoTime() - t0;
+        }
+        ParallelTopologicalSort.Result lv = levels;
+        int totalWords = (n + 63) >>> 6;
+        long fit = Math.min(maxBytes / 8, Integer.MAX_VALUE - 8) / Math.max(1, n); // EDGE: one long[] holds at most ~2^31 words
+        int blockWords = (int) Math.max(1, Math.min(totalWords, fit));
+        boolean[] redundant = new boolean[m];
+
+        long[] desc = new long[Math.max(1, n * blockWords)];
+        for (int w0 = 0; w0 < totalWords; w0 += blockWords) {
+            // STEP 1: one column block [lo, hi) of targets; rows are rebuilt from scratch per block
+            final int words = Math.min(blockWords, totalWords - w0), lo = w0 << 6, hi = Math.min(n, (w0 + words) << 6);
+            Arrays.fill(desc, 0, n * words, 0L);
+            for (int l = lv.levels() - 1; l >= 0; l--) {
+                int from = lv.levelStart[l], to = lv.levelStart[l + 1];
+                if (to - from >= PAR_LEVEL && pool.getParallelism() > 1)
+                    ForkJoinRanges.parallelFor(pool, from, to, CHUNK, (a, b) -> rows(dag, lv.order, a, b, desc, words, lo, hi, redundant));
+                else rows(dag, lv.order, from, to, desc, words, lo, hi, redundant);
+            }
+        }
+        if (Metrics.ENABLED) metrics.edgesVisited += (long) m * ((totalWords + blockWords - 1) / blockWords);
+
+        // STEP 3: compact the kept edges into a new CSR (same vertex ids, same weights)
+        int[] offsets = new int[n + 1];
+        int kept = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = kept;
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) if (!redundant[e]) kept++;
+        }
+        offsets[n] = kept;
+        int[] targets = new int[kept], weights = new int[kept];
+        for (int u = 0, k = 0; u < n; u++)
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++)
+                if (!redundant[e]) { targets[k] = dag.target(e); weights[k++] = dag.weight(e); }
+        CsrGraph reduced = new CsrGraph(n, offsets, targets, weights);
+        metrics.stop();
+        return new Result(reduced, m - kept, redundant, sortNanos / 1e6);
+    }
+
+    // STEP 2: for the vertices order[a..b): via = OR of successor rows, test edges, then add the successors
+    private static void rows(Graph dag, int[] order, int a, int b, long[] desc, int words, int lo, int hi, boolean[] redundant) {
+        for (int i = a; i < b; i++) {
+            int u = order[i], base = u * words;
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                int wb = dag.target(e) * words;
+                for (int k = 0; k < words; k++) desc[base + k] |= desc[wb + k];
+            }
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                int v = dag.target(e);
+                if (v < lo || v >= hi) continue; // EDGE: decided in the block that holds v's column
+                int bit = v - lo;
+                if ((desc[base + (bit >>> 6)] & (1L << bit)) != 0) redundant[e] = true;
+            }
+            for (int e = dag.begin(u), end = dag.end(u); e < end; e++) {
+                int v = dag.target(e);
+                if (v >= lo && v < hi) desc[base + ((v - lo) >>> 6)] |= 1L << (v - lo);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io;
+
+import common.EdgeStream;
+import common.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compact binary CSR format ("*.csrg"), little-endian:
+ *
+ *   header (32 bytes): magic, version, flags, n, m (long), source, reserved
+ *   offsets: (n+1) ints, targets: m ints, weights: m ints
+ *   node weights: n ints (version 2, only when flags bit 0 is set)
+ *
+ * flags bit 0 = weight_model "node"; version 1 files (no node section) are still read. Loading
+ * memory-maps each section read-only, so startup does not copy the graph onto the heap and the OS page
+ * cache is shared by every process reading the file.
+ */
+public class BinaryGraphIO {
+    public static final int MAGIC = 0x47525343; // "CSRG" in little-endian byte order
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".csrg";
+    static final int HEADER_BYTES = 32;
+    static final int FLAG_NODE_MODEL = 1;
+
+    public static boolean isBinary(String path) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) return false;
+            ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(b, 0);
+            return b.getInt(0) == MAGIC;
+        }
+    }
+
+    public static void write(Graph g, int source, String weightModel, Path out) throws IOException {
+        write(g, source, weightModel, null, out);
+    }
+
+    public static void write(Graph g, int source, String weightModel, int[] nodeWeights, Path out) throws IOException {
+        int n = g.n(), m = g.m();
+        nodeWeights = GraphIO.checkWeightModel(weightModel, nodeWeights, n, out.toString());
+        int flags = nodeWeights != null ? FLAG_NODE_MODEL : 0;
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            // STEP 1: header
+            buf.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(n).putLong(m).putInt(source).putInt(0);
+            // STEP 2: CSR sections, streamed through one reusable buffer
+            for (int u = 0; u <= n; u++) put(ch, buf, u < n ? g.begin(u) : m);
+            for (int e = 0; e < m; e++) put(ch, buf, g.target(e));
+            for (int e = 0; e < m; e++) put(ch, buf, g.weight(e));
+            if (nodeWeights != null) for (int v = 0; v < n; v++) put(ch, buf, nodeWeights[v]);
+            flush(ch, buf);
+        }
+    }
+
+    /**
+     * Same file as write(Graph ...) for the CSR that collects the stream's edges, but the graph is never on
+     * the heap: one pass counts out-degrees (O(n) ints), a second scatters targets and weights straight
+     * into the mapped sections. For generated or converted graphs larger than the heap.
+     */
+    public static void write(EdgeStream in, int source, Path out) throws IOException {
+        int n = in.n();
+        // STEP 1: out-degrees → offsets (validates endpoints like CsrGraph.fromEdgeArrays)
+        int[] offsets = new int[n + 1];
+        long[] count = {0};
+        in.scan((u, v, w) -> {
+            if (u < 0 || u >= n || v < 0 || v >= n) throw new IllegalArgumentException("Edge " + u + "->" + v + " out of range [0," + n + ")");
+            offsets[u + 1]++;
+            count[0]++;
+        });
+        if (count[0] > Integer.MAX_VALUE) throw new IllegalArgumentException("Edge count exceeds int range: " + count[0]);
+        int m = (int) count[0];
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // STEP 2: header and offsets, written sequentially
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(n).putLong(m).putInt(source).putInt(0);
+            for (int x : offsets) put(ch, buf, x);
+            flush(ch, buf);
+
+            // STEP 3: second pass scatters each edge into its source's slot (per-vertex order = stream order)
+            long pos = HEADER_BYTES + 4L * (n + 1);
+            MappedInts targets = MappedInts.map(ch, FileChannel.MapMode.READ_WRITE, pos, m);
+            MappedInts weights = MappedInts.map(ch, FileChannel.MapMode.READ_WRITE, pos + 4L * m, m);
+            int[] next = Arrays.copyOf(offsets, n);
+            in.scan((u, v, w) -> {
+                int p = next[u]++;
+                targets.set(p, v);
+                weights.set(p, w);
+            });
+        }
+    }
+
+    static void put(FileChannel ch, ByteBuffer buf, int x) throws IOException {
+        if (buf.remaining() < 4) flush(ch, buf);
+        buf.putInt(x);
+    }
+
+    static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    public static GraphIO.Loaded load(String path) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            // STEP 1: read and validate the header
+            ByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (h.getInt(0) != MAGIC) throw new IllegalArgumentException("Not a " + EXTENSION + " file: " + path);
+            int version = h.getInt(4);
+            if (version < 1 || version > VERSION) throw new IllegalArgumentException("Unsupported " + EXTENSION + " version " + version);
+            int flags = h.getInt(8), n = h.getInt(12);
+            long m = h.getLong(16);
+            int source = h.getInt(24);
+            if (n < 0) throw new IllegalArgumentException("Negative vertex count " + n + " in " + path);
+            if (m < 0 || m > Integer.MAX_VALUE) throw new IllegalArgumentException("Edge count out of int range: " + m);
+            boolean node = (flags & FLAG_NODE_MODEL) != 0;
+            boolean nodeSection = node && version >= 2;
+            long expected = HEADER_BYTES + 4L * (n + 1) + 8L * m + (nodeSection ? 4L * n : 0);
+            if (ch.size() < expected) throw new IllegalArgumentException("Truncated " + EXTENSION + " file: " + path);
+
+            // STEP 2: map sections (mappings stay valid after the channel is closed)
+            long pos = HEADER_BYTES;
+            MappedInts offsets = MappedInts.map(ch, FileChannel.MapMode.READ_ONLY, pos, n + 1L);
+            pos += 4L * (n + 1);
+            MappedInts targets = MappedInts.map(ch, FileChannel.MapMode.READ_ONLY, pos, m);
+            pos += 4L * m;
+            MappedInts weights = MappedInts.map(ch, FileChannel.MapMode.READ_ONLY, pos, m);
+            pos += 4L * m;
+            // WHY: only the two ends of the offsets; a full scan would fault in every page and undo the mmap startup
+            if (offsets.get(0) != 0) throw new IllegalArgumentException("offsets[0] must be 0 in " + path);
+            if (offsets.get(n) != m) throw new IllegalArgumentException("offsets[n] must equal m=" + m + " in " + path);
+
+            // STEP 3: node weights are small (n ints) and read by every DP, so they go onto the heap
+            int[] nodeWeights = null;
+            if (nodeSection) {
+                nodeWeights = new int[n];
+                ch.map(FileChannel.MapMode.READ_ONLY, pos, 4L * n).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(nodeWeights);
+            }
+            if (node && nodeWeights == null) throw new IllegalArgumentException("Version 1 " + EXTENSION + " file has no node weights: " + path);
+
+            String wm = node ? "node" : "edge";
+            return new GraphIO.Loaded(new MappedCsrGraph(n, (int) m, offsets, targets, weights), source, wm, nodeWeights);
+        }
+    }
+
+    /**
+     * Full O(n+m) check of the invariants CsrGraph.fromEdgeArrays guarantees (monotonic offsets, targets in
+     * [0, n)), so a corrupt file fails here and not inside an algorithm. load() skips it to keep startup
+     * O(1); Main runs it with --verify.
+     */
+    public static void verify(Graph g, String path) {
+        int n = g.n();
+        for (int u = 0, prev = 0; u < n; u++) {
+            int next = g.end(u);
+            if (next < prev) throw new IllegalArgumentException("offsets decrease at vertex " + u + " in " + path);
+            prev = next;
+        }
+        for (int e = 0, m = g.m(); e < m; e++) {
+            int v = g.target(e);
+            if (v < 0 || v >= n) throw new IllegalArgumentException("Edge " + e + " target " + v + " out of range [0," + n + ") in " + path);
+        }
+    }
+
+    // Int array view over one or more mappings (a single mapping is limited to 2 GB)
+    static final class MappedInts {
+        private static final int SHIFT = 28;                 // 2^28 ints = 1 GB per chunk
+        private static final int MASK = (1 << SHIFT) - 1;
+        private final IntBuffer[] chunks;
+
+        private MappedInts(IntBuffer[] chunks) { this.chunks = chunks; }
+
+        static MappedInts map(FileChannel ch, FileChannel.MapMode mode, long pos, long count) throws IOException {
+            int k = (int) ((count + MASK) >>> SHIFT);
+            IntBuffer[] chunks = new IntBuffer[Math.max(k, 1)];
+            for (int i = 0; i < chunks.length; i++) {
+                long len = Math.min(count - ((long) i << SHIFT), 1L << SHIFT);
+                chunks[i] = ch.map(mode, pos + 4L * ((long) i << SHIFT), 4L * Math.max(len, 0))
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+            return new MappedInts(chunks);
+        }
+
+        int get(int i) { return chunks[i >>> SHIFT].get(i & MASK); }
+
+        void set(int i, int x) { chunks[i >>> SHIFT].put(i & MASK, x); }
+    }
+
+    // Graph view straight over the mapped file
+    static final class MappedCsrGraph implements Graph {
+        private final int n, m;
+        private final MappedInts offsets, targets, weights;
+
+        MappedCsrGraph(int n, int m, MappedInts offsets, MappedInts targets, MappedInts weights) {
+            this.n = n; this.m = m;
+            this.offsets = offsets; this.targets = targets; this.weights = weights;
+        }
+
+        @Override public int n() { return n; }
+        @Override public int m() { return m; }
+        @Override public int begin(int u) { return offsets.get(u); }
+        @Override public int end(int u) { return offsets.get(u + 1); }
+        @Override public int target(int e) { return targets.get(e); }
+        @Override public int weight(int e) { return weights.get(e); }
+    }
+}
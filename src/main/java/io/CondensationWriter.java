@@ -0,0 +1,176 @@
+package io;
+
+import common.CsrGraph;
+import common.EdgeStream;
+import common.Graph;
+import graph.scc.CondensationGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Disk-backed counterpart of CondensationGraph.build for graphs that are only available as an
+ * EdgeStream. Heap use is O(c) for c components; the inter-component edges go through files:
+ *
+ *  1. a counting pass sizes each source component's bucket;
+ *  2. a scatter pass writes (target, weight) pairs into their buckets in a memory-mapped temp file;
+ *  3. buckets are deduplicated one at a time (min and max weight per component pair, first-seen order,
+ *     exactly like CondensationGraph.build) and appended to three sequential section files;
+ *  4. the sections are concatenated into two ordinary .csrg files, one with min and one with max
+ *     weights, so BinaryGraphIO and read() can load them.
+ */
+public class CondensationWriter {
+    private static final int MAP_CHUNK_PAIRS = 1 << 27; // (target, weight) pairs per mapping: 1 GB
+
+    // The two files of one condensation
+    public static final class Output {
+        public final Path min, max;
+        public final int components, edges;
+        Output(Path min, Path max, int components, int edges) {
+            this.min = min; this.max = max; this.components = components; this.edges = edges;
+        }
+    }
+
+    // Writes <dir>/<name>.min.csrg and <dir>/<name>.max.csrg
+    public static Output write(EdgeStream in, int[] compOf, int compCount, Path dir, String name) throws IOException {
+        Files.createDirectories(dir);
+
+        // STEP 1: inter-component edges per source component
+        long[] start = new long[compCount + 1];
+        in.scan((u, v, w) -> { if (compOf[u] != compOf[v]) start[compOf[u] + 1]++; });
+        for (int c = 0; c < compCount; c++) start[c + 1] += start[c];
+        long total = start[compCount];
+
+        Path raw = Files.createTempFile(dir, name, ".raw");
+        Path secT = Files.createTempFile(dir, name, ".t"), secMin = Files.createTempFile(dir, name, ".min"), secMax = Files.createTempFile(dir, name, ".max");
+        Path tmpMin = Files.createTempFile(dir, name, ".min.tmp"), tmpMax = Files.createTempFile(dir, name, ".max.tmp");
+        int[] offsets = new int[compCount + 1];
+        int out = 0;
+        try {
+            try (FileChannel rc = FileChannel.open(raw, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // STEP 2: scatter into buckets (random writes go to the page cache, not the heap)
+                MappedByteBuffer[] chunks = map(rc, total);
+                long[] next = Arrays.copyOf(start, compCount);
+                in.scan((u, v, w) -> {
+                    int cu = compOf[u], cv = compOf[v];
+                    if (cu == cv) return;
+                    long i = next[cu]++;
+                    MappedByteBuffer b = chunks[(int) (i / MAP_CHUNK_PAIRS)];
+                    int at = (int) (i % MAP_CHUNK_PAIRS) * 8;
+                    b.putInt(at, cv);
+                    b.putInt(at + 4, w);
+                });
+
+                // STEP 3: dedup each bucket with the source-stamped seen[] of CondensationGraph.build
+                int[] seen = new int[compCount], slot = new int[compCount];
+                int[] bt = new int[Math.max(1, compCount)], bmin = new int[bt.length], bmax = new int[bt.length];
+                Arrays.fill(seen, -1);
+                try (Sections s = new Sections(secT, secMin, secMax)) {
+                    for (int cu = 0; cu < compCount; cu++) {
+                        offsets[cu] = out;
+                        int k = 0;
+                        for (long i = start[cu]; i < start[cu + 1]; i++) {
+                            MappedByteBuffer b = chunks[(int) (i / MAP_CHUNK_PAIRS)];
+                            int at = (int) (i % MAP_CHUNK_PAIRS) * 8;
+                            int cv = b.getInt(at), w = b.getInt(at + 4);
+                            if (seen[cv] == cu) {
+                                int p = slot[cv];
+                                if (w < bmin[p]) bmin[p] = w;
+                                if (w > bmax[p]) bmax[p] = w;
+                            } else {
+                                seen[cv] = cu; slot[cv] = k;
+                                bt[k] = cv; bmin[k] = w; bmax[k] = w;
+                                k++;
+                            }
+                        }
+                        for (int j = 0; j < k; j++) s.add(bt[j], bmin[j], bmax[j]);
+                        out += k;
+                    }
+                }
+            }
+            offsets[compCount] = out;
+
+            // STEP 4: header + offsets, then the shared targets and one weight section per file
+            // WHY: assembled under temp names and moved into place, so a reader never maps a half-written file
+            Path min = dir.resolve(name + ".min" + BinaryGraphIO.EXTENSION), max = dir.resolve(name + ".max" + BinaryGraphIO.EXTENSION);
+            assemble(tmpMin, offsets, out, secT, secMin);
+            assemble(tmpMax, offsets, out, secT, secMax);
+            Files.move(tmpMin, min, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(tmpMax, max, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Output(min, max, compCount, out);
+        } finally {
+            for (Path p : new Path[]{raw, secT, secMin, secMax, tmpMin, tmpMax}) Files.deleteIfExists(p);
+        }
+    }
+
+    // Loads a written condensation back onto the heap (both DAGs share offsets and targets)
+    public static CondensationGraph.Result read(Output f) throws IOException {
+        Graph min = BinaryGraphIO.load(f.min.toString()).graph, max = BinaryGraphIO.load(f.max.toString()).graph;
+        int c = min.n(), m = min.m();
+        int[] offsets = new int[c + 1], targets = new int[m], minW = new int[m], maxW = new int[m];
+        for (int u = 0; u <= c; u++) offsets[u] = u < c ? min.begin(u) : m;
+        for (int e = 0; e < m; e++) { targets[e] = min.target(e); minW[e] = min.weight(e); maxW[e] = max.weight(e); }
+        return new CondensationGraph.Result(new CsrGraph(c, offsets, targets, minW), new CsrGraph(c, offsets, targets, maxW));
+    }
+
+    private static MappedByteBuffer[] map(FileChannel ch, long pairs) throws IOException {
+        int k = (int) Math.max(1, (pairs + MAP_CHUNK_PAIRS - 1) / MAP_CHUNK_PAIRS);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[k];
+        for (int i = 0; i < k; i++) {
+            long len = Math.max(0, Math.min(pairs - (long) i * MAP_CHUNK_PAIRS, MAP_CHUNK_PAIRS));
+            chunks[i] = ch.map(FileChannel.MapMode.READ_WRITE, (long) i * MAP_CHUNK_PAIRS * 8, len * 8);
+        }
+        return chunks;
+    }
+
+    private static void assemble(Path file, int[] offsets, int m, Path targets, Path weights) throws IOException {
+        int c = offsets.length - 1;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(BinaryGraphIO.MAGIC).putInt(BinaryGraphIO.VERSION).putInt(0).putInt(c).putLong(m).putInt(0).putInt(0);
+            for (int x : offsets) BinaryGraphIO.put(ch, buf, x);
+            BinaryGraphIO.flush(ch, buf);
+            append(ch, targets);
+            append(ch, weights);
+        }
+    }
+
+    private static void append(FileChannel to, Path from) throws IOException {
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ)) {
+            long pos = 0, size = in.size();
+            while (pos < size) pos += in.transferTo(pos, size - pos, to);
+        }
+    }
+
+    // Three sequential int section writers sharing one flush policy
+    private static final class Sections implements AutoCloseable {
+        private final FileChannel t, lo, hi;
+        private final ByteBuffer bt, blo, bhi;
+
+        Sections(Path t, Path lo, Path hi) throws IOException {
+            this.t = FileChannel.open(t, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.lo = FileChannel.open(lo, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.hi = FileChannel.open(hi, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.bt = ByteBuffer.allocateDirect(1 << 18).order(ByteOrder.LITTLE_ENDIAN);
+            this.blo = ByteBuffer.allocateDirect(1 << 18).order(ByteOrder.LITTLE_ENDIAN);
+            this.bhi = ByteBuffer.allocateDirect(1 << 18).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void add(int target, int min, int max) throws IOException {
+            BinaryGraphIO.put(t, bt, target);
+            BinaryGraphIO.put(lo, blo, min);
+            BinaryGraphIO.put(hi, bhi, max);
+        }
+
+        @Override public void close() throws IOException {
+            BinaryGraphIO.flush(t, bt); BinaryGraphIO.flush(lo, blo); BinaryGraphIO.flush(hi, bhi);
+            t.close(); lo.close(); hi.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * One buffered, append-mode writer shared by all dataset workers.
+ * Rows of one dataset are written as a block under the lock, so blocks never interleave.
+ */
+public class CsvSink implements Closeable {
+    private final BufferedWriter out;
+
+    // Opens (or creates) the file; the header is written only when the file is new or empty
+    public CsvSink(Path path, String header) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+        if (!fresh) {
+            // EDGE: appending rows under another column layout would silently misalign every later column
+            String first;
+            try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) { first = in.readLine(); }
+            if (!header.equals(first))
+                throw new IllegalStateException(path + " has a different CSV header (written by another version?); "
+                        + "move it away or start a new file (--fresh)");
+        }
+        this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (fresh) { out.write(header); out.newLine(); }
+    }
+
+    public synchronized void writeRows(List<String> rows) throws IOException {
+        for (String r : rows) { out.write(r); out.newLine(); }
+    }
+
+    public synchronized void flush() throws IOException { out.flush(); }
+
+    @Override
+    public synchronized void close() throws IOException { out.close(); }
+}
@@ -0,0 +1,116 @@
+package io;
+
+import common.EdgeStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Edge stream over a graph file that is never loaded as a whole: every scan re-reads the file.
+ *
+ *  - .csrg: the offsets and targets/weights sections are read sequentially through three small direct
+ *    buffers (CHUNK bytes each), so a pass costs one streaming read of the file and no mapping;
+ *  - JSON: each pass is a Jackson token stream (GraphIO.stream). Opening makes one extra pass to learn
+ *    n, m, source and node weights.
+ *
+ * Endpoints are range-checked on every pass (the in-memory loaders do the same when freezing to CSR).
+ */
+public class FileEdgeStream implements EdgeStream {
+    private static final int CHUNK = 1 << 18;
+
+    public final String path;
+    public final int source;
+    public final String weightModel;
+    public final int[] nodeWeights; // per-vertex durations for weight_model "node", else null
+    private final boolean binary;
+    private final int n;
+    private final long m;
+
+    private FileEdgeStream(String path, boolean binary, int n, long m, int source, String wm, int[] nodeWeights) {
+        this.path = path; this.binary = binary; this.n = n; this.m = m;
+        this.source = source; this.weightModel = wm; this.nodeWeights = nodeWeights;
+    }
+
+    public static FileEdgeStream open(String path) throws IOException {
+        if (BinaryGraphIO.isBinary(path)) {
+            try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+                ByteBuffer h = ByteBuffer.allocate(BinaryGraphIO.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                ch.read(h, 0);
+                int version = h.getInt(4), flags = h.getInt(8), n = h.getInt(12), source = h.getInt(24);
+                long m = h.getLong(16);
+                if (version < 1 || version > BinaryGraphIO.VERSION)
+                    throw new IllegalArgumentException("Unsupported " + BinaryGraphIO.EXTENSION + " version " + version);
+                boolean node = (flags & BinaryGraphIO.FLAG_NODE_MODEL) != 0;
+                int[] nw = null;
+                if (node) {
+                    if (version < 2) throw new IllegalArgumentException("Version 1 " + BinaryGraphIO.EXTENSION + " file has no node weights: " + path);
+                    nw = new int[n];
+                    IntReader r = new IntReader(ch, BinaryGraphIO.HEADER_BYTES + 4L * (n + 1) + 8L * m);
+                    for (int v = 0; v < n; v++) nw[v] = r.next();
+                }
+                return new FileEdgeStream(path, true, n, m, source, node ? "node" : "edge", nw);
+            }
+        }
+        long[] m = {0};
+        GraphIO.Header h = GraphIO.stream(path, (u, v, w) -> m[0]++);
+        String wm = h.weightModel != null ? h.weightModel : "edge";
+        int[] nw = GraphIO.checkWeightModel(wm, h.nodeWeights, h.n, path);
+        return new FileEdgeStream(path, false, h.n, m[0], h.source != null ? h.source : 0, wm, nw);
+    }
+
+    @Override public int n() { return n; }
+    @Override public long m() { return m; }
+
+    public boolean nodeWeighted() { return "node".equals(weightModel); }
+
+    @Override
+    public void scan(Sink sink) throws IOException {
+        if (!binary) {
+            GraphIO.stream(path, (u, v, w) -> sink.edge(check(u), check(v), w));
+            return;
+        }
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long base = BinaryGraphIO.HEADER_BYTES;
+            IntReader offsets = new IntReader(ch, base);
+            IntReader targets = new IntReader(ch, base + 4L * (n + 1));
+            IntReader weights = new IntReader(ch, base + 4L * (n + 1) + 4L * m);
+            int end = offsets.next();
+            for (int u = 0; u < n; u++) {
+                int begin = end;
+                end = offsets.next();
+                for (int e = begin; e < end; e++) sink.edge(u, check(targets.next()), weights.next());
+            }
+        }
+    }
+
+    private int check(int v) {
+        if (v < 0 || v >= n) throw new IllegalArgumentException("Vertex " + v + " out of range [0," + n + ") in " + path);
+        return v;
+    }
+
+    // Sequential little-endian int reader from a file position, refilled CHUNK bytes at a time
+    private static final class IntReader {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        private long pos;
+
+        IntReader(FileChannel ch, long pos) { this.ch = ch; this.pos = pos; buf.limit(0); }
+
+        int next() throws IOException {
+            if (buf.remaining() < 4) {
+                buf.compact();
+                while (buf.hasRemaining()) {
+                    int r = ch.read(buf, pos);
+                    if (r < 0) break;
+                    pos += r;
+                }
+                buf.flip();
+                if (buf.remaining() < 4) throw new IOException("Unexpected end of file");
+            }
+            return buf.getInt();
+        }
+    }
+}
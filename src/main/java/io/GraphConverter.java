@@ -0,0 +1,45 @@
+package io;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts JSON datasets to the binary CSR format.
+ *
+ * Usage:
+ *   java -cp ... io.GraphConverter data/small_1.json [out/small_1.csrg]
+ *   java -cp ... io.GraphConverter data                  # every data/*.json → data/*.csrg
+ */
+public class GraphConverter {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Usage: GraphConverter <file.json|dir> [out.csrg]");
+            return;
+        }
+        Path in = Paths.get(args[0]);
+        if (Files.isDirectory(in)) {
+            List<Path> files;
+            try (Stream<Path> s = Files.list(in)) {
+                files = s.filter(p -> p.toString().endsWith(".json")).sorted().collect(Collectors.toList());
+            }
+            for (Path p : files) convert(p, withExtension(p));
+        } else {
+            convert(in, args.length > 1 ? Paths.get(args[1]) : withExtension(in));
+        }
+    }
+
+    public static void convert(Path json, Path out) throws Exception {
+        GraphIO.Loaded loaded = GraphIO.load(json.toString());
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        BinaryGraphIO.write(loaded.graph, loaded.source, loaded.weightModel, loaded.nodeWeights, out);
+        System.out.println(json + " -> " + out + " (n=" + loaded.graph.n() + ", m=" + loaded.graph.m() + ")");
+    }
+
+    private static Path withExtension(Path json) {
+        String name = json.getFileName().toString().replaceFirst("\\.json$", "") + BinaryGraphIO.EXTENSION;
+        return json.resolveSibling(name);
+    }
+}
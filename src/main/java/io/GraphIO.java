@@ -1,61 +1,145 @@
 package io;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import common.DirectedGraph;
-import common.Edge;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import common.CsrGraph;
+import common.Graph;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 public class GraphIO {
-
-    // DTO (Data Transfer Object) for JSON → Java mapping
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class GraphDTO {
-        @JsonProperty public boolean directed;
-        @JsonProperty public int n;
-        @JsonProperty public List<EdgeDTO> edges;
-        @JsonProperty public Integer source;
-        @JsonProperty("weight_model") public String weightModel;
-    }
-
-    // Inner DTO for edges inside JSON
-    public static class EdgeDTO {
-        @JsonProperty public int u;
-        @JsonProperty public int v;
-        @JsonProperty public int w;
-    }
+    private static final JsonFactory JSON = new JsonFactory();
 
     // Object to hold parsed data after loading
     public static class Loaded {
-        public final DirectedGraph graph;
+        public final Graph graph;
         public final int source;
         public final String weightModel;
-        public Loaded(DirectedGraph g, int s, String wm) { this.graph = g; this.source = s; this.weightModel = wm; }
+        public final int[] nodeWeights; // per-vertex durations when weightModel is "node", else null
+        public Loaded(Graph g, int s, String wm) { this(g, s, wm, null); }
+        public Loaded(Graph g, int s, String wm, int[] nodeWeights) {
+            this.graph = g; this.source = s; this.weightModel = wm; this.nodeWeights = nodeWeights;
+        }
+        public boolean nodeWeighted() { return "node".equals(weightModel); }
+    }
+
+    // Top-level scalar fields of the JSON schema (edges are streamed to an EdgeSink instead)
+    public static class Header {
+        public boolean directed;
+        public int n = -1;
+        public Integer source;
+        public String weightModel;
+        public int[] nodeWeights;
+    }
+
+    // Receives each edge as soon as it is parsed
+    public interface EdgeSink {
+        void edge(int u, int v, int w);
     }
 
     public static Loaded load(String path) throws Exception {
-        // STEP 1: read and parse JSON using Jackson
-        ObjectMapper mapper = new ObjectMapper();
-        GraphDTO dto = mapper.readValue(new File(path), GraphDTO.class);
+        // STEP 0: binary CSR files are memory-mapped instead of parsed
+        if (BinaryGraphIO.isBinary(path)) return BinaryGraphIO.load(path);
 
-        // STEP 2: ensure graph is directed (as required by assignment)
-        if (!dto.directed) throw new IllegalArgumentException("Input must be directed");
+        // STEP 1: stream edges straight into growable int arrays (no DTO list, no Edge objects)
+        int[][] arr = { new int[1024], new int[1024], new int[1024] };
+        int[] m = {0};
+        Header h = stream(path, (u, v, w) -> {
+            if (m[0] == arr[0].length) {
+                int cap = arr[0].length << 1;
+                for (int k = 0; k < 3; k++) arr[k] = Arrays.copyOf(arr[k], cap);
+            }
+            arr[0][m[0]] = u; arr[1][m[0]] = v; arr[2][m[0]] = w;
+            m[0]++;
+        });
 
-        // STEP 3: convert EdgeDTO list → real Edge list
-        List<Edge> edges = new ArrayList<>();
-        for (EdgeDTO e : dto.edges) edges.add(new Edge(e.u, e.v, e.w));
+        // STEP 2: set defaults for optional fields
+        int src = h.source != null ? h.source : 0;
+        String wm = h.weightModel != null ? h.weightModel : "edge";
 
-        // STEP 4: build DirectedGraph object from edge list
-        DirectedGraph g = DirectedGraph.fromEdges(dto.n, edges);
+        int[] nw = checkWeightModel(wm, h.nodeWeights, h.n, path);
 
-        // STEP 5: set defaults for optional fields
-        int src = dto.source != null ? dto.source : 0;
-        String wm = dto.weightModel != null ? dto.weightModel : "edge";
+        // STEP 3: bucket the staged arrays straight into CSR (validates vertex ids; the staging arrays are then garbage)
+        Graph g = CsrGraph.fromEdgeArrays(h.n, arr[0], arr[1], arr[2], m[0]);
+        return new Loaded(g, src, wm, nw);
+    }
+
+    /**
+     * One pass over the file with Jackson's token API; fields may appear in any order.
+     * Validates that the graph is directed and that n is present.
+     */
+    public static Header stream(String path, EdgeSink sink) throws IOException {
+        Header h = new Header();
+        try (JsonParser p = JSON.createParser(new File(path))) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IllegalArgumentException("Expected JSON object in " + path);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+                switch (field) {
+                    case "directed": h.directed = t == JsonToken.VALUE_TRUE; break;
+                    case "n": h.n = p.getIntValue(); break;
+                    case "source": if (t != JsonToken.VALUE_NULL) h.source = p.getIntValue(); break;
+                    case "weight_model": if (t != JsonToken.VALUE_NULL) h.weightModel = p.getText(); break;
+                    case "node_weights": h.nodeWeights = readInts(p); break;
+                    case "edges": readEdges(p, sink); break;
+                    default: p.skipChildren(); // unknown fields are ignored
+                }
+            }
+        }
+        // ensure graph is directed (as required by assignment)
+        if (!h.directed) throw new IllegalArgumentException("Input must be directed");
+        if (h.n < 0) throw new IllegalArgumentException("Missing vertex count n in " + path);
+        return h;
+    }
+
+    // "node" needs one weight per vertex; "edge" ignores node_weights
+    static int[] checkWeightModel(String wm, int[] nodeWeights, int n, String path) {
+        switch (wm) {
+            case "edge": return null;
+            case "node":
+                if (nodeWeights == null) throw new IllegalArgumentException("weight_model \"node\" needs node_weights in " + path);
+                if (nodeWeights.length != n)
+                    throw new IllegalArgumentException("node_weights has " + nodeWeights.length + " entries, expected n=" + n + " in " + path);
+                return nodeWeights;
+            default: throw new IllegalArgumentException("Unsupported weight_model: " + wm);
+        }
+    }
+
+    private static int[] readInts(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return null;
+        if (p.currentToken() != JsonToken.START_ARRAY) throw new IllegalArgumentException("node_weights must be an array");
+        int[] a = new int[64];
+        int k = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (k == a.length) a = Arrays.copyOf(a, k << 1);
+            a[k++] = p.getIntValue();
+        }
+        return Arrays.copyOf(a, k);
+    }
 
-        // STEP 6: return packaged graph and metadata
-        return new Loaded(g, src, wm);
+    private static void readEdges(JsonParser p, EdgeSink sink) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return;
+        if (p.currentToken() != JsonToken.START_ARRAY) throw new IllegalArgumentException("edges must be an array");
+        for (long k = 0; p.nextToken() != JsonToken.END_ARRAY; k++) {
+            // EDGE: a truncated file or a non-object element must fail, not end the edge list early
+            if (p.currentToken() != JsonToken.START_OBJECT)
+                throw new IllegalArgumentException("edges[" + k + "] must be an object, got " + p.currentToken());
+            int u = -1, v = -1, w = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String f = p.currentName();
+                p.nextToken();
+                switch (f) {
+                    case "u": u = p.getIntValue(); break;
+                    case "v": v = p.getIntValue(); break;
+                    case "w": w = p.getIntValue(); break;
+                    default: p.skipChildren();
+                }
+            }
+            if (u < 0 || v < 0) throw new IllegalArgumentException("edges[" + k + "] needs non-negative u and v");
+            sink.edge(u, v, w);
+        }
     }
-}
\ No newline at end of file
+}
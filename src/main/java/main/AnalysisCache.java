@@ -0,0 +1,218 @@
+package main;
+
+import common.CsrGraph;
+import common.Graph;
+import graph.scc.CondensationGraph;
+import graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Source-independent pipeline results (SCCs, both condensation DAGs, topological order and, under
+ * --reduce, the transitive reduction of the min DAG) keyed by a
+ * content hash of the graph, so a repeated query on the same graph goes straight to the path phases.
+ *
+ * In memory: LRU by estimated array bytes (access-ordered LinkedHashMap), evicting until the total fits
+ * the budget. Optionally every computed entry is also written to a directory (one file per key,
+ * written to a temp file and moved into place) and read back on a memory miss, so warm restarts skip
+ * the analysis too. The directory itself is not size-bounded, and a failed write is logged and counted,
+ * never thrown: the cache is optional. A hit is only trusted when its vertex and edge counts match the
+ * queried graph. Thread-safe; disk reads happen outside the lock.
+ */
+public final class AnalysisCache {
+    private static final int MAGIC = 0x41434353;   // "SCCA" little-endian
+    private static final int VERSION = 3; // 2: header also records the graph's edge count; 3: optional reduced DAG
+    private static final String EXTENSION = ".scca";
+    private static final long ENTRY_OVERHEAD = 256; // object headers, map node, key string
+
+    public static final class Entry {
+        public final TarjanSCC.Result scc;
+        public final CondensationGraph.Result dags;
+        public final int[] topo; // topological order of the condensation DAG
+        public final CsrGraph reduced; // transitive reduction of dags.min, or null when not computed
+        final int graphEdges;   // m of the analysed graph (n is compOf.length); checked on every hit
+        final long bytes;
+
+        public Entry(int graphEdges, TarjanSCC.Result scc, CondensationGraph.Result dags, int[] topo) {
+            this(graphEdges, scc, dags, topo, null);
+        }
+
+        public Entry(int graphEdges, TarjanSCC.Result scc, CondensationGraph.Result dags, int[] topo, CsrGraph reduced) {
+            this.graphEdges = graphEdges;
+            // WHY: keep only the flat arrays; the List<List<Integer>> view is rebuilt over them for free
+            this.scc = new TarjanSCC.Result(scc.compOf, scc.compStart, scc.members);
+            this.dags = dags; this.topo = topo; this.reduced = reduced;
+            long ints = scc.compOf.length + scc.compStart.length + scc.members.length + topo.length
+                    + dags.min.offsets().length + dags.min.targets().length + dags.min.weights().length + dags.max.weights().length;
+            if (reduced != null) ints += reduced.offsets().length + reduced.targets().length + reduced.weights().length;
+            this.bytes = ENTRY_OVERHEAD + 4L * ints;
+        }
+    }
+
+    private final long maxBytes;
+    private final Path dir; // null → memory only
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes, hits, diskHits, misses, evictions, writeErrors;
+
+    public AnalysisCache(long maxBytes, Path dir) throws IOException {
+        this.maxBytes = maxBytes;
+        this.dir = dir;
+        if (dir != null) Files.createDirectories(dir);
+    }
+
+    // 128-bit content hash of the CSR arrays (two independent 64-bit mixes) plus the SCC engine,
+    // whose component numbering the cached results depend on
+    public static String key(Graph g, String sccMode) {
+        long h1 = 0x9E3779B97F4A7C15L ^ g.n(), h2 = 0xC2B2AE3D27D4EB4FL ^ ((long) g.m() << 32);
+        for (int u = 0; u <= g.n(); u++) {
+            int x = u < g.n() ? g.begin(u) : g.m();
+            h1 = mix(h1, x); h2 = mix2(h2, x);
+        }
+        for (int e = 0; e < g.m(); e++) {
+            int t = g.target(e), w = g.weight(e);
+            h1 = mix(h1, t); h2 = mix2(h2, t);
+            h1 = mix(h1, w); h2 = mix2(h2, w);
+        }
+        return String.format("%016x%016x-%s", fin(h1), fin(h2), sccMode);
+    }
+
+    private static long mix(long h, int x) { return Long.rotateLeft(h ^ (x * 0x9E3779B97F4A7C15L), 27) * 0xFF51AFD7ED558CCDL; }
+
+    private static long mix2(long h, int x) { return Long.rotateLeft(h + (x * 0xC4CEB9FE1A85EC53L), 31) * 0x87C37B91114253D5L; }
+
+    private static long fin(long h) {
+        h ^= h >>> 33; h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33; h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // Memory first, then disk; null on a miss or when the entry's n/m disagree with g (a colliding key)
+    public Entry get(String key, Graph g) {
+        synchronized (this) {
+            Entry e = map.get(key);
+            if (e != null && matches(e, g)) { hits++; return e; }
+        }
+        Entry e = dir != null ? readFile(key) : null;
+        if (e != null && !matches(e, g)) e = null;
+        synchronized (this) {
+            if (e == null) { misses++; return null; }
+            diskHits++;
+            insert(key, e);
+            return e;
+        }
+    }
+
+    private static boolean matches(Entry e, Graph g) {
+        return e.scc.compOf.length == g.n() && e.graphEdges == g.m();
+    }
+
+    public void put(String key, Entry e) {
+        synchronized (this) { insert(key, e); }
+        if (dir == null) return;
+        try {
+            writeFile(key, e);
+        } catch (IOException | RuntimeException ex) {
+            // EDGE: disk full / permissions → the entry stays in memory only; the run itself must not fail
+            synchronized (this) { writeErrors++; }
+            System.err.println("Analysis cache: could not write " + key + EXTENSION + " to " + dir + ": " + ex);
+        }
+    }
+
+    private void insert(String key, Entry e) {
+        if (e.bytes > maxBytes) return; // EDGE: larger than the whole budget → never cached in memory
+        Entry old = map.put(key, e);
+        if (old != null) bytes -= old.bytes;
+        bytes += e.bytes;
+        Iterator<Entry> it = map.values().iterator();
+        while (bytes > maxBytes) {
+            Entry victim = it.next(); // eldest first (least recently used)
+            it.remove();
+            bytes -= victim.bytes;
+            evictions++;
+        }
+    }
+
+    public synchronized long hits() { return hits; }
+    public synchronized long diskHits() { return diskHits; }
+    public synchronized long misses() { return misses; }
+    public synchronized long evictions() { return evictions; }
+    public synchronized long writeErrors() { return writeErrors; }
+    public synchronized long bytes() { return bytes; }
+    public synchronized int size() { return map.size(); }
+
+    @Override public synchronized String toString() {
+        return "hits=" + hits + ", disk_hits=" + diskHits + ", misses=" + misses + ", evictions=" + evictions
+                + ", write_errors=" + writeErrors + ", entries=" + map.size() + ", bytes=" + bytes + "/" + maxBytes;
+    }
+
+    // ---------- disk format: header ints (magic, version, n, graph m, c, dag m, reduced m or -1), then compOf, compStart, members,
+    // topo, offsets, targets, min, max, and with a reduced DAG its offsets, targets, weights ----------
+
+    private void writeFile(String key, Entry e) throws IOException {
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        int n = e.scc.compOf.length, c = e.scc.count(), m = e.dags.min.m(), rm = e.reduced != null ? e.reduced.m() : -1;
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+                put(ch, buf, new int[]{MAGIC, VERSION, n, e.graphEdges, c, m, rm}, 7);
+                put(ch, buf, e.scc.compOf, n);
+                put(ch, buf, e.scc.compStart, c + 1);
+                put(ch, buf, e.scc.members, n);
+                put(ch, buf, e.topo, c);
+                put(ch, buf, e.dags.min.offsets(), c + 1);
+                put(ch, buf, e.dags.min.targets(), m);
+                put(ch, buf, e.dags.min.weights(), m);
+                put(ch, buf, e.dags.max.weights(), m);
+                if (e.reduced != null) {
+                    put(ch, buf, e.reduced.offsets(), c + 1);
+                    put(ch, buf, e.reduced.targets(), rm);
+                    put(ch, buf, e.reduced.weights(), rm);
+                }
+                buf.flip();
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, dir.resolve(key + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp); // no-op after the move; removes a partial file after a failed write
+        }
+    }
+
+    private static void put(FileChannel ch, ByteBuffer buf, int[] a, int len) throws IOException {
+        for (int i = 0; i < len; i++) {
+            if (buf.remaining() < 4) { buf.flip(); while (buf.hasRemaining()) ch.write(buf); buf.clear(); }
+            buf.putInt(a[i]);
+        }
+    }
+
+    private Entry readFile(String key) {
+        Path file = dir.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            IntBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (in.remaining() < 7 || in.get() != MAGIC || in.get() != VERSION) return null;
+            int n = in.get(), graphEdges = in.get(), c = in.get(), m = in.get(), rm = in.get();
+            long reducedInts = rm < 0 ? 0 : c + 1 + 2L * rm;
+            if (in.remaining() != 2L * n + 2L * (c + 1) + c + 3L * m + reducedInts) return null;
+            int[] compOf = take(in, n), compStart = take(in, c + 1), members = take(in, n), topo = take(in, c);
+            int[] offsets = take(in, c + 1), targets = take(in, m), minW = take(in, m), maxW = take(in, m);
+            CondensationGraph.Result dags = new CondensationGraph.Result(
+                    new CsrGraph(c, offsets, targets, minW), new CsrGraph(c, offsets, targets, maxW));
+            CsrGraph reduced = rm < 0 ? null : new CsrGraph(c, take(in, c + 1), take(in, rm), take(in, rm));
+            return new Entry(graphEdges, new TarjanSCC.Result(compOf, compStart, members), dags, topo, reduced);
+        } catch (IOException | RuntimeException ex) {
+            return null; // EDGE: unreadable or corrupt file → recompute (and overwrite it on put)
+        }
+    }
+
+    private static int[] take(IntBuffer in, int len) {
+        int[] a = new int[len];
+        in.get(a);
+        return a;
+    }
+}
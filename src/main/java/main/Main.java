@@ -1,47 +1,115 @@
 package main;
 
-import common.DirectedGraph;
-import graph.dagsp.DagLongestPath;
-import graph.dagsp.DagShortestPaths;
+import common.Graph;
+import graph.dagsp.CriticalPathMethod;
+import graph.dagsp.KBestDagPaths;
+import graph.dagsp.LongDagLongestPath;
+import graph.dagsp.LongDagShortestPaths;
 import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.SemiExternalSCC;
 import graph.scc.TarjanSCC;
+import graph.topo.ParallelTopologicalSort;
 import graph.topo.TopologicalSortKahn;
+import graph.topo.TransitiveReduction;
+import io.BinaryGraphIO;
+import io.CondensationWriter;
+import io.CsvSink;
+import io.FileEdgeStream;
 import io.GraphIO;
 import utils.Metrics;
+import utils.MetricsRegistry;
 
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Main {
     private static final String CSV_PATH = "out/metrics.csv";
     private static final String NA = "NA";
+    private static final String CACHED = ":cached"; // phase suffix for reused results (AnalysisCache, or another source's --external run)
 
-    private static void initCsv(boolean fresh) throws IOException {
-        Files.createDirectories(Paths.get("out"));
+    private static final String CSV_HEADER = String.join(",",
+            "dataset","phase","time_ms","dfsCalls","edgesVisited","topoPushes","topoPops","relaxations",
+            "scc_count","scc_sizes","scc_components",
+            "topo_components","derived_task_order",
+            "sssp_source_comp","sssp_distances","sssp_target_comp","sssp_distance","sssp_path_components",
+            "critical_path_components","critical_length",
+            "tr_edges_removed","tr_reduce_ms","tr_downstream_saved_ms"
+    );
+
+    // Command-line settings shared by every dataset run
+    static final class Options {
+        String sccMode = "iterative";
+        int jobs = 1;          // datasets processed concurrently
+        boolean quiet = false; // skip per-component / per-distance console dumps
+        int kPaths = 0;        // > 0: also list the K best alternative routes and near-critical chains
+        int[] sources;         // --sources: one run per source instead of the dataset's own
+        AnalysisCache cache;   // --cache-mb: reuse SCC / condensation / topo across runs of the same graph
+        boolean metricsSummary; // --metrics: print per-phase latency percentiles at the end
+        boolean reduce;         // --reduce: order from the level sort; reports what the transitive reduction saves downstream
+        Path externalDir;       // --external: stream edges from the file, write the condensation here
+        boolean verify;         // --verify: full O(n+m) structure check of .csrg inputs after mapping
+        // --external: SCC + condensation per dataset, computed by its first query and shared by its other sources
+        // WHY: the batch pool takes queries in submission order, so the first query is running before any other waits
+        final ConcurrentHashMap<String, External> external = new ConcurrentHashMap<>();
+    }
+
+    // Source-independent --external results of one dataset; dropped once every source of the dataset took it
+    static final class External {
+        final CompletableFuture<External> done = new CompletableFuture<>();
+        final AtomicInteger remaining;
+        TarjanSCC.Result scc;
+        int passes;
+        Metrics mscc;
+        CondensationWriter.Output files;
+        CondensationGraph.Result dags;
+        External(int queries) { this.remaining = new AtomicInteger(queries); }
+    }
+
+    // One pipeline run: a dataset and the source to use (-1 → the one stored in the file)
+    static final class Query {
+        final String dataset;
+        final int source;
+        final boolean first; // first query of its dataset: computes the shared --external results
+        Query(String dataset, int source, boolean first) { this.dataset = dataset; this.source = source; this.first = first; }
+    }
+
+    // Console text and CSV rows of one dataset, emitted in input order by the batch runner
+    private static final class Report {
+        final String dataset;
+        final ByteArrayOutputStream console; // null: the run already printed straight to System.out
+        final List<String> rows = new ArrayList<>();
+        Throwable error;
+        Report(String dataset, ByteArrayOutputStream console) { this.dataset = dataset; this.console = console; }
+    }
+
+    private static CsvSink initCsv(boolean fresh) throws IOException {
         Path p = Paths.get(CSV_PATH);
-        if (fresh && Files.exists(p)) Files.delete(p);
-        if (!Files.exists(p)) {
-            try (PrintWriter pw = new PrintWriter(new FileOutputStream(CSV_PATH, true))) {
-                pw.println(String.join(",",
-                        "dataset","phase","time_ms","dfsCalls","edgesVisited","topoPushes","topoPops","relaxations",
-                        "scc_count","scc_sizes","scc_components",
-                        "topo_components","derived_task_order",
-                        "sssp_source_comp","sssp_distances","sssp_target_comp","sssp_distance","sssp_path_components",
-                        "critical_path_components","critical_length"
-                ));
-            }
-        }
+        if (fresh) Files.deleteIfExists(p);
+        return new CsvSink(p, CSV_HEADER);
     }
     private static String quote(String s){ return "\"" + s.replace("\"","\"\"") + "\""; }
     private static String joinInts(Collection<Integer> xs){
-        return xs.stream().map(String::valueOf).collect(Collectors.joining(" "));
+        StringBuilder sb = new StringBuilder();
+        for (int x : xs) { if (sb.length() > 0) sb.append(' '); sb.append(x); }
+        return sb.toString();
     }
     private static String qJoinInts(Collection<Integer> xs){ return quote(joinInts(xs)); }
+    // Paths stay int[] end to end (no boxing, no streams)
+    private static String qJoinInts(int[] xs){
+        StringBuilder sb = new StringBuilder(xs.length * 4);
+        for (int i = 0; i < xs.length; i++) { if (i > 0) sb.append(' '); sb.append(xs[i]); }
+        return quote(sb.toString());
+    }
     private static String qCompSizes(List<List<Integer>> comps){
         return quote(comps.stream().map(c -> String.valueOf(c.size())).collect(Collectors.joining(" ")));
     }
@@ -52,22 +120,29 @@ public class Main {
         }
         return quote(String.join("; ", parts));
     }
-    private static String qDistancesVector(int n, DagShortestPaths s){
-        final int INF = Integer.MAX_VALUE/4;
+    private static String qDistancesVector(int n, LongDagShortestPaths s){
         List<String> parts = new ArrayList<>();
         for(int v=0; v<n; v++){
-            int d = s.distTo(v);
-            parts.add("C"+v+"="+(d<INF? String.valueOf(d) : "INF"));
+            parts.add("C"+v+"="+(s.reachable(v)? String.valueOf(s.distTo(v)) : "INF"));
         }
         return quote(String.join("; ", parts));
     }
-    private static void writePhase(String dataset, String phase, Metrics m, Map<String,String> extra){
+    private static String csvRow(String dataset, String phase, Metrics m, Map<String,String> extra){
+        // WHY: a reused result did no work; NA instead of 0 keeps it out of timings and the histograms
+        boolean reused = phase.endsWith(CACHED);
+        if (!reused) m.publish(phase); // METRICS: every CSV phase also feeds the registry histograms and JFR
         String dfs=NA, edges=NA, pushes=NA, pops=NA, relax=NA;
-        switch (phase){
-            case "SCC_Tarjan": dfs=String.valueOf(m.dfsCalls); edges=String.valueOf(m.edgesVisited); break;
-            case "Topo_Kahn":  pushes=String.valueOf(m.topoPushes); pops=String.valueOf(m.topoPops); break;
+        switch (reused ? "" : phase){
+            case "SCC_Tarjan":
+            case "SCC_IterativeTarjan":
+            case "SCC_Parallel":
+            case "SCC_SemiExternal": dfs=String.valueOf(m.dfsCalls); edges=String.valueOf(m.edgesVisited); break;
+            case "Transitive_Reduction": edges=String.valueOf(m.edgesVisited); break;
+            case "Topo_Kahn":
+            case "Topo_Levels": pushes=String.valueOf(m.topoPushes); pops=String.valueOf(m.topoPops); break;
             case "DAG_SSSP":
-            case "DAG_Longest": relax=String.valueOf(m.relaxations); break;
+            case "DAG_Longest":
+            case "CPM": relax=String.valueOf(m.relaxations); break;
         }
         String[] cols = new String[]{
                 extra.getOrDefault("scc_count",NA),
@@ -81,93 +156,220 @@ public class Main {
                 extra.getOrDefault("sssp_distance",NA),
                 extra.getOrDefault("sssp_path_components",NA),
                 extra.getOrDefault("critical_path_components",NA),
-                extra.getOrDefault("critical_length",NA)
+                extra.getOrDefault("critical_length",NA),
+                extra.getOrDefault("tr_edges_removed",NA),
+                extra.getOrDefault("tr_reduce_ms",NA),
+                extra.getOrDefault("tr_downstream_saved_ms",NA)
         };
-        try (PrintWriter pw = new PrintWriter(new FileOutputStream(CSV_PATH, true))) {
-            pw.printf("%s,%s,%.3f,%s,%s,%s,%s,%s",
-                    dataset, phase, m.getElapsedMillisDouble(),
-                    dfs, edges, pushes, pops, relax);
-            for (String c : cols) pw.print("," + c);
-            pw.println();
-        } catch (Exception e){
-            System.err.println("Failed to write " + CSV_PATH + ": " + e.getMessage());
-        }
-    }
-    private static void runOne(String datasetPath) throws Exception {
-        System.out.println("\n================= DATASET: " + datasetPath + " =================");
-
-        GraphIO.Loaded loaded = GraphIO.load(datasetPath);
-        DirectedGraph g = loaded.graph;
-        int source = loaded.source;
-        System.out.println("Loaded: n="+g.n()+", edges="+g.getEdges().size()
-                +", source="+source+", weight_model="+loaded.weightModel);
-
-        // 1) SCC (Tarjan)
-        Metrics mscc = new Metrics();
-        TarjanSCC scc = new TarjanSCC();
-        TarjanSCC.Result res = scc.compute(g, mscc);
-
-        System.out.println("-- SCC Components ("+res.components.size()+") --");
-        for (int i=0;i<res.components.size();i++)
-            System.out.printf("C%d size=%d : %s%n", i, res.components.get(i).size(), res.components.get(i));
+        StringBuilder row = new StringBuilder(String.format("%s,%s,%s,%s,%s,%s,%s,%s",
+                dataset, phase, reused ? NA : String.format("%.3f", m.getElapsedMillisDouble()),
+                dfs, edges, pushes, pops, relax));
+        for (String c : cols) row.append(',').append(c);
+        return row.toString();
+    }
+    // Semi-external SCC, then the condensation built through files; only the (much smaller) DAGs are read back
+    private static void computeExternal(External ext, FileEdgeStream edges, String datasetPath, Options opt) throws IOException {
+        SemiExternalSCC sx = new SemiExternalSCC();
+        ext.mscc = new Metrics();
+        ext.scc = sx.compute(edges, ext.mscc);
+        ext.passes = sx.passes();
+        String name = Paths.get(datasetPath).getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        ext.files = CondensationWriter.write(edges, ext.scc.compOf, ext.scc.count(), opt.externalDir, name);
+        ext.dags = CondensationWriter.read(ext.files);
+    }
+
+    // SCC engine selected with --scc (all return the same Result contract)
+    private static TarjanSCC.Result computeScc(String mode, Graph g, Metrics m) {
+        switch (mode) {
+            case "recursive": return new TarjanSCC().compute(g, m);
+            case "iterative": return new IterativeTarjanSCC().compute(g, m);
+            case "parallel":  return new ParallelSCC().compute(g, m);
+            default: throw new IllegalArgumentException("Unknown --scc mode: " + mode);
+        }
+    }
+
+    // CSV phase name of the SCC engine actually run (--external overrides --scc)
+    private static String sccPhase(Options opt) {
+        if (opt.externalDir != null) return "SCC_SemiExternal";
+        switch (opt.sccMode) {
+            case "recursive": return "SCC_Tarjan";
+            case "parallel":  return "SCC_Parallel";
+            default:          return "SCC_IterativeTarjan";
+        }
+    }
+
+    private static void runOne(Query q, Options opt, PrintStream out, List<String> rows) throws Exception {
+        boolean verbose = !opt.quiet;
+        String datasetPath = q.dataset;
+        out.println("\n================= DATASET: " + datasetPath + " =================");
+
+        // WHY: in external mode the graph is never materialised; only the edge stream and O(n) metadata exist
+        FileEdgeStream edges = opt.externalDir != null ? FileEdgeStream.open(datasetPath) : null;
+        GraphIO.Loaded loaded = edges == null ? GraphIO.load(datasetPath) : null;
+        Graph g = loaded != null ? loaded.graph : null;
+        if (opt.verify && g != null && BinaryGraphIO.isBinary(datasetPath)) BinaryGraphIO.verify(g, datasetPath);
+        int n = edges != null ? edges.n() : g.n();
+        boolean nodeWeighted = edges != null ? edges.nodeWeighted() : loaded.nodeWeighted();
+        int[] nodeWeights = edges != null ? edges.nodeWeights : loaded.nodeWeights;
+        int source = q.source >= 0 ? q.source : edges != null ? edges.source : loaded.source;
+        out.println("Loaded: n="+n+", edges="+(edges != null ? edges.m() : g.m())
+                +", source="+source+", weight_model="+(edges != null ? edges.weightModel : loaded.weightModel)
+                +(edges != null ? " (streamed from disk)" : ""));
+
+        // 0) Source-independent results of an earlier run on the same graph content (in-memory mode only)
+        // WHY: --reduce adds the reduced DAG to the entry and changes its topo order, so it is part of the key
+        String cacheKey = null;
+        if (opt.cache != null && g != null) {
+            Metrics mkey = new Metrics(); // METRICS: hashing every CSR array is the price of each lookup, hit or miss
+            mkey.start();
+            cacheKey = AnalysisCache.key(g, opt.reduce ? opt.sccMode + "+tr" : opt.sccMode);
+            mkey.stop();
+            rows.add(csvRow(datasetPath, "Cache_Key", mkey, Collections.emptyMap()));
+        }
+        AnalysisCache.Entry cached = cacheKey != null ? opt.cache.get(cacheKey, g) : null;
+        if (cached != null) out.println("Analysis cache hit: SCC, condensation and "
+                + (opt.reduce ? "transitive reduction" : "topological order") + " reused");
+        String reuse = cached != null ? CACHED : "";
+
+        // WHY: the semi-external passes and the condensation files depend only on the dataset, so under --sources
+        // one query computes them and the others wait; concurrent writers would truncate each other's files
+        External ext = null;
+        boolean extShared = edges != null && !q.first;
+        if (edges != null) {
+            ext = opt.external.computeIfAbsent(datasetPath, k -> new External(opt.sources != null ? opt.sources.length : 1));
+            if (q.first) {
+                try { computeExternal(ext, edges, datasetPath, opt); ext.done.complete(ext); }
+                catch (Throwable t) { ext.done.completeExceptionally(t); }
+            }
+            try { ext.done.get(); }
+            catch (ExecutionException e) { throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e; }
+            finally { if (ext.remaining.decrementAndGet() == 0) opt.external.remove(datasetPath, ext); }
+            if (extShared) out.println("Semi-external SCC and condensation shared with another source of this dataset");
+            else out.println("Semi-external SCC: " + ext.passes + " passes over the edge file");
+        }
+
+        // 1) SCC (engine chosen by --scc / --external)
+        Metrics mscc = ext != null ? ext.mscc : new Metrics();
+        TarjanSCC.Result res;
+        if (cached != null) res = cached.scc;
+        else if (ext != null) res = ext.scc;
+        else res = computeScc(opt.sccMode, g, mscc);
+
+        out.println("-- SCC Components ("+res.components.size()+") --");
+        if (verbose)
+            for (int i=0;i<res.components.size();i++)
+                out.printf("C%d size=%d : %s%n", i, res.components.get(i).size(), res.components.get(i));
 
         Map<String,String> sccFields = new HashMap<>();
         sccFields.put("scc_count", String.valueOf(res.components.size()));
         sccFields.put("scc_sizes", qCompSizes(res.components));
         sccFields.put("scc_components", qComponentsPretty(res.components));
-        writePhase(datasetPath, "SCC_Tarjan", mscc, sccFields);
+        rows.add(csvRow(datasetPath, sccPhase(opt) + (extShared ? CACHED : reuse), mscc, sccFields));
 
         // 2) Condensation DAG
-        DirectedGraph dagMin = CondensationGraph.buildMinEdgeWeights(g, res.compOf, res.components.size());
-        DirectedGraph dagMax = CondensationGraph.buildMaxEdgeWeights(g, res.compOf, res.components.size());
-        System.out.println("Condensation DAG (min): n="+dagMin.n()+", edges="+dagMin.getEdges().size());
-        System.out.println("Condensation DAG (max): n="+dagMax.n()+", edges="+dagMax.getEdges().size());
+        CondensationGraph.Result dags;
+        if (cached != null) dags = cached.dags;
+        else if (ext != null) {
+            out.println("Condensation written to " + ext.files.min + " and " + ext.files.max);
+            dags = ext.dags;
+        } else dags = CondensationGraph.build(g, res.compOf, res.count());
+        Graph dagMin = dags.min, dagMax = dags.max;
+        out.println("Condensation DAG (min): n="+dagMin.n()+", edges="+dagMin.m());
+        out.println("Condensation DAG (max): n="+dagMax.n()+", edges="+dagMax.m());
+        // WHY: node model → a component costs the sum of its tasks; the DPs read these instead of edge weights
+        int[] compWeights = nodeWeighted
+                ? CondensationGraph.aggregateNodeWeights(nodeWeights, res.compOf, res.count()) : null;
 
         // 3) Topological sort + derived order
         Metrics mtopo = new Metrics();
-        List<Integer> topo = TopologicalSortKahn.order(dagMin, mtopo);
-        System.out.println("-- Topological order of components --");
-        System.out.println(topo);
+        // WHY: computed once as int[] and shared by SSSP and longest path (min and max DAGs have the same edges)
+        int[] topoOrder;
+        Map<String,String> reduceFields = null;
+        Metrics mreduce = new Metrics();
+        String topoPhase = opt.reduce ? "Topo_Levels" : "Topo_Kahn";
+        if (opt.reduce) {
+            // WHY: the reduced DAG has the same reachability, so its level order is a topological order of dagMin and
+            // its levels are the execution waves; the order and the waves come from it, hit or miss. SSSP, longest
+            // path and CPM keep dagMin/dagMax because a dropped edge may be heavier than its detour
+            TransitiveReduction.Result tr = cached != null ? null : new TransitiveReduction().reduce(dagMin, null, mreduce);
+            Graph reduced = tr != null ? tr.reduced : cached.reduced;
+            long t0 = System.nanoTime();
+            ParallelTopologicalSort.Result waves = new ParallelTopologicalSort().sort(reduced, mtopo);
+            double wavesMs = (System.nanoTime() - t0) / 1e6;
+            topoOrder = waves.order;
+            int widest = 0;
+            for (int l = 0; l < waves.levels(); l++) widest = Math.max(widest, waves.levelStart[l + 1] - waves.levelStart[l]);
+            out.println("Execution waves: " + waves.levels() + " (widest " + widest + " components), over "
+                    + reduced.m() + " of " + dagMin.m() + " DAG edges");
+            if (tr != null) {
+                // METRICS: the wave pass is linear in vertices + edges, so the edges it no longer scans are priced at
+                // its own measured rate; timing a second pass on dagMin just for the report would cost what it measures,
+                // and the cold sort inside reduce() is no fair baseline (JIT warm-up dominates on small DAGs)
+                double saved = wavesMs * tr.removed / Math.max(1, reduced.n() + reduced.m());
+                out.printf("Transitive reduction: removed %d of %d DAG edges, cost %.3f ms; wave pass %.3f ms, ~%.3f ms saved per pass%n",
+                        tr.removed, dagMin.m(), mreduce.getElapsedMillisDouble(), wavesMs, saved);
+                reduceFields = new HashMap<>();
+                reduceFields.put("tr_edges_removed", String.valueOf(tr.removed));
+                reduceFields.put("tr_reduce_ms", String.format("%.3f", mreduce.getElapsedMillisDouble()));
+                reduceFields.put("tr_downstream_saved_ms", String.format("%.3f", saved));
+            }
+            if (cacheKey != null && cached == null)
+                opt.cache.put(cacheKey, new AnalysisCache.Entry(g.m(), res, dags, topoOrder, tr.reduced));
+        } else {
+            topoOrder = cached != null ? cached.topo : TopologicalSortKahn.orderArray(dagMin, mtopo);
+            if (cacheKey != null && cached == null) opt.cache.put(cacheKey, new AnalysisCache.Entry(g.m(), res, dags, topoOrder));
+        }
+        int[] derived = new int[n];
+        int dp = 0;
+        for (int c : topoOrder)
+            for (int i = res.compStart[c]; i < res.compStart[c + 1]; i++) derived[dp++] = res.members[i];
+        if (verbose) {
+            out.println("-- Topological order of components --");
+            out.println(Arrays.toString(topoOrder));
 
-        System.out.println("-- Derived order of original tasks (grouped by component topo) --");
-        for (int c : topo) System.out.printf("C%d: %s%n", c, res.components.get(c));
-        List<Integer> derived = new ArrayList<>();
-        for (int c : topo) derived.addAll(res.components.get(c));
-        System.out.println("Derived flat order of tasks: " + derived);
+            out.println("-- Derived order of original tasks (grouped by component topo) --");
+            for (int c : topoOrder) out.printf("C%d: %s%n", c, res.components.get(c));
+            out.println("Derived flat order of tasks: " + Arrays.toString(derived));
+        }
 
         Map<String,String> topoFields = new HashMap<>();
-        topoFields.put("topo_components", qJoinInts(topo));
+        topoFields.put("topo_components", qJoinInts(topoOrder));
         topoFields.put("derived_task_order", qJoinInts(derived));
-        writePhase(datasetPath, "Topo_Kahn", mtopo, topoFields);
+        // EDGE: on a hit the reduction is not rerun, but its row stays (as cached) so every run has the same phases;
+        // the wave pass over the cached reduction does run, so its row is never cached
+        if (reduceFields != null) rows.add(csvRow(datasetPath, "Transitive_Reduction", mreduce, reduceFields));
+        else if (cached != null && opt.reduce) rows.add(csvRow(datasetPath, "Transitive_Reduction" + CACHED, mreduce, Collections.emptyMap()));
+        rows.add(csvRow(datasetPath, topoPhase + (opt.reduce ? "" : reuse), mtopo, topoFields));
 
         // Map source to SCC id
-        int compSource = res.compOf[Math.max(0, Math.min(source, g.n()-1))];
+        int compSource = res.compOf[Math.max(0, Math.min(source, n-1))];
 
         // 4) DAG SSSP
+        // WHY: 64-bit distances with a reachability bitset; long chains on large graphs cannot wrap into the sentinels
         Metrics msssp = new Metrics();
-        DagShortestPaths sssp = new DagShortestPaths(dagMin, compSource);
+        LongDagShortestPaths sssp = new LongDagShortestPaths(dagMin, compSource, topoOrder, compWeights);
         sssp.run(msssp);
 
-        final int INF = Integer.MAX_VALUE/4;
-        System.out.println("-- Shortest distances from component "+compSource+" --");
-        for (int v=0; v<dagMin.n(); v++){
-            int d = sssp.distTo(v);
-            System.out.printf("to C%d = %s%n", v, (d<INF? String.valueOf(d) : "INF"));
+        if (verbose) {
+            out.println("-- Shortest distances from component "+compSource+" --");
+            for (int v=0; v<dagMin.n(); v++){
+                out.printf("to C%d = %s%n", v, (sssp.reachable(v)? String.valueOf(sssp.distTo(v)) : "INF"));
+            }
         }
 
-        int bestDist=-1, target=-1;
+        long bestDist=-1;
+        int target=-1;
         for (int v=0; v<dagMin.n(); v++){
-            int d = sssp.distTo(v);
-            if (d<INF && d>bestDist){ bestDist=d; target=v; }
+            if (sssp.reachable(v) && sssp.distTo(v)>bestDist){ bestDist=sssp.distTo(v); target=v; }
         }
-        List<Integer> path = Collections.emptyList();
+        int[] path = new int[0];
         if (target!=-1){
-            path = sssp.pathTo(target);
-            System.out.printf("-- One optimal shortest path (to farthest reachable) --%n");
-            System.out.printf("to C%d (dist=%d): %s%n", target, bestDist, path);
+            path = sssp.pathArray(target);
+            out.printf("-- One optimal shortest path (to farthest reachable) --%n");
+            out.printf("to C%d (dist=%d): %s%n", target, bestDist, verbose ? Arrays.toString(path) : path.length + " components");
         } else {
-            System.out.println("-- One optimal shortest path --");
-            System.out.println("No reachable target from the source component.");
+            out.println("-- One optimal shortest path --");
+            out.println("No reachable target from the source component.");
         }
 
         Map<String,String> ssspFields = new HashMap<>();
@@ -176,24 +378,124 @@ public class Main {
         ssspFields.put("sssp_target_comp", (target!=-1? String.valueOf(target): NA));
         ssspFields.put("sssp_distance", (target!=-1? String.valueOf(bestDist): NA));
         ssspFields.put("sssp_path_components", qJoinInts(path));
-        writePhase(datasetPath, "DAG_SSSP", msssp, ssspFields);
+        rows.add(csvRow(datasetPath, "DAG_SSSP", msssp, ssspFields));
 
         // 5) DAG Longest (critical path)
         Metrics mlong = new Metrics();
-        DagLongestPath lp = new DagLongestPath(dagMax, compSource);
+        LongDagLongestPath lp = new LongDagLongestPath(dagMax, compSource, topoOrder, compWeights);
         lp.run(mlong);
-        List<Integer> crit = lp.criticalPath();
-        int clen = lp.longestValue();
-        System.out.println("-- Critical path on condensation DAG --");
-        System.out.println(crit);
-        System.out.println("Critical length = " + clen);
+        int[] crit = lp.criticalPathArray();
+        long clen = lp.longestValue();
+        out.println("-- Critical path on condensation DAG --");
+        out.println(verbose ? Arrays.toString(crit) : crit.length + " components");
+        out.println("Critical length = " + clen);
 
         Map<String,String> longestFields = new HashMap<>();
         longestFields.put("critical_path_components", qJoinInts(crit));
         longestFields.put("critical_length", String.valueOf(clen));
-        writePhase(datasetPath, "DAG_Longest", mlong, longestFields);
+        rows.add(csvRow(datasetPath, "DAG_Longest", mlong, longestFields));
+
+        // 6) Critical path method over the whole condensation DAG (same topo order)
+        Metrics mcpm = new Metrics();
+        CriticalPathMethod.Result cpm = new CriticalPathMethod(dagMax, topoOrder, compWeights).compute(mcpm);
+        out.println("-- CPM on condensation DAG (all start components) --");
+        out.println("Project duration = " + cpm.duration + ", critical components = " + cpm.criticalComponents.length
+                + ", critical edges = " + cpm.criticalEdgeFrom.length);
+        if (verbose) {
+            out.println("Critical components: " + Arrays.toString(cpm.criticalComponents));
+            out.println("Critical tasks: " + Arrays.toString(cpm.criticalTasks(res)));
+        }
+
+        Map<String,String> cpmFields = new HashMap<>();
+        cpmFields.put("critical_path_components", qJoinInts(cpm.criticalComponents));
+        cpmFields.put("critical_length", String.valueOf(cpm.duration));
+        rows.add(csvRow(datasetPath, "CPM", mcpm, cpmFields));
+
+        // 7) K best alternatives (console only): K shortest routes to the SSSP target, K longest chains to any sink
+        // WHY: the memory cap is a per-query limit; hitting it only skips that listing, the CSV rows above stay
+        if (opt.kPaths > 0) {
+            if (target != -1) {
+                out.println("-- " + opt.kPaths + " shortest paths to C" + target + " --");
+                try {
+                    KBestDagPaths ks = new KBestDagPaths(dagMin, compSource, false, topoOrder, compWeights, KBestDagPaths.DEFAULT_MAX_BYTES);
+                    for (KBestDagPaths.Path p : ks.best(target, opt.kPaths)) printKPath(out, p, verbose);
+                } catch (IllegalStateException e) {
+                    out.println("Skipped: " + e.getMessage() + " (lower --kpaths)");
+                }
+            }
+            out.println("-- " + opt.kPaths + " longest chains from C" + compSource + " (ending at sink components) --");
+            try {
+                KBestDagPaths kl = new KBestDagPaths(dagMax, compSource, true, topoOrder, compWeights, KBestDagPaths.DEFAULT_MAX_BYTES);
+                for (KBestDagPaths.Path p : kl.best(KBestDagPaths.ANY_SINK, opt.kPaths)) printKPath(out, p, verbose);
+            } catch (IllegalStateException e) {
+                out.println("Skipped: " + e.getMessage() + " (lower --kpaths)");
+            }
+        }
+
+    }
+
+    private static void printKPath(PrintStream out, KBestDagPaths.Path p, boolean verbose) {
+        out.println("length=" + p.value + ": " + (verbose ? Arrays.toString(p.vertices) : p.vertices.length + " components"));
+    }
+
+    private static Report runCaptured(Query q, Options opt) {
+        Report r = new Report(q.dataset, new ByteArrayOutputStream());
+        try (PrintStream out = new PrintStream(r.console, false, StandardCharsets.UTF_8)) {
+            try { runOne(q, opt, out, r.rows); }
+            catch (Throwable t) { r.error = t; }
+        }
+        return r;
+    }
+
+    private static Report runDirect(Query q, Options opt) {
+        Report r = new Report(q.dataset, null);
+        try { runOne(q, opt, System.out, r.rows); }
+        catch (Throwable t) { r.error = t; }
+        return r;
+    }
+
+    // Runs datasets on a bounded pool; reports are emitted strictly in input order. Returns the failed count
+    private static int runBatch(List<String> datasets, Options opt, CsvSink sink) throws Exception {
+        List<Query> queries = new ArrayList<>();
+        for (String d : datasets) {
+            if (opt.sources == null) queries.add(new Query(d, -1, true));
+            else for (int i = 0; i < opt.sources.length; i++) queries.add(new Query(d, opt.sources[i], i == 0));
+        }
+        int failed = 0;
+        if (opt.jobs <= 1) {
+            // WHY: nothing runs concurrently, so there is nothing to reorder; print as the run goes
+            for (Query q : queries) if (!emit(runDirect(q, opt), sink)) failed++;
+        } else {
+            ExecutorService pool = Executors.newFixedThreadPool(opt.jobs);
+            try {
+                // WHY: a sliding window bounds how many finished-but-unwritten reports are held in memory
+                int window = opt.jobs * 4;
+                ArrayDeque<Future<Report>> pending = new ArrayDeque<>();
+                for (Query q : queries) {
+                    pending.add(pool.submit(() -> runCaptured(q, opt)));
+                    if (pending.size() >= window && !emit(pending.poll().get(), sink)) failed++;
+                }
+                while (!pending.isEmpty()) if (!emit(pending.poll().get(), sink)) failed++;
+            } finally {
+                pool.shutdown();
+            }
+        }
+        sink.flush();
+        if (opt.cache != null) System.out.println("Analysis cache: " + opt.cache);
+        if (opt.metricsSummary) System.out.print("-- Phase metrics (all runs) --\n" + MetricsRegistry.global().report());
+        return failed;
+    }
 
+    // false if the dataset failed; its rows are dropped and the batch carries on
+    private static boolean emit(Report r, CsvSink sink) throws IOException {
+        if (r.console != null) System.out.print(r.console.toString(StandardCharsets.UTF_8));
+        if (r.error != null) {
+            System.err.println("Failed on dataset "+r.dataset+": "+r.error.getMessage());
+            return false;
+        }
+        sink.writeRows(r.rows);
         System.out.println("Metrics appended to " + CSV_PATH);
+        return true;
     }
 
     // ---------- discover datasets ----------
@@ -210,30 +512,80 @@ public class Main {
     // ---------- entry ----------
     public static void main(String[] args) throws Exception {
         String dataPath = null;
+        Options opt = new Options();
         boolean runAll = false, fresh = false;
+        long cacheMb = 0;
+        int servePort = -1;
+        String cacheDir = null;
 
         for (int i=0;i<args.length;i++){
             if ("--data".equals(args[i]) && i+1<args.length) dataPath = args[++i];
             else if ("--all".equals(args[i])) runAll = true;
             else if ("--fresh".equals(args[i])) fresh = true;
+            else if ("--scc".equals(args[i]) && i+1<args.length) opt.sccMode = args[++i];
+            else if ("--jobs".equals(args[i]) && i+1<args.length) opt.jobs = Integer.parseInt(args[++i]);
+            else if ("--quiet".equals(args[i])) opt.quiet = true;
+            else if ("--kpaths".equals(args[i]) && i+1<args.length) opt.kPaths = Integer.parseInt(args[++i]);
+            else if ("--sources".equals(args[i]) && i+1<args.length)
+                opt.sources = Arrays.stream(args[++i].split(",")).mapToInt(x -> Integer.parseInt(x.trim())).toArray();
+            else if ("--cache-mb".equals(args[i]) && i+1<args.length) cacheMb = Long.parseLong(args[++i]);
+            else if ("--cache-dir".equals(args[i]) && i+1<args.length) cacheDir = args[++i];
+            else if ("--metrics".equals(args[i])) opt.metricsSummary = true;
+            else if ("--reduce".equals(args[i])) opt.reduce = true;
+            else if ("--verify".equals(args[i])) opt.verify = true;
+            else if ("--external".equals(args[i]) && i+1<args.length) opt.externalDir = Paths.get(args[++i]);
+            else if ("--serve".equals(args[i]) && i+1<args.length) servePort = Integer.parseInt(args[++i]);
+        }
+        if (servePort >= 0) {
+            if (dataPath == null) { System.err.println("--serve needs --data <path>"); return; }
+            QueryServer server = new QueryServer(dataPath);
+            server.start(servePort);
+            System.out.println("Serving " + dataPath + " on http://127.0.0.1:" + server.port()
+                    + " (/component /reaches /dist /path /critical /cpm /stats, POST /reload)");
+            return; // WHY: the server's non-daemon dispatcher thread keeps the JVM alive
         }
-        initCsv(fresh);
-        if (dataPath != null){ runOne(dataPath); return; }
         runAll = runAll || args.length==0;
-        if (runAll){
-            List<Path> files = findAllJsonUnderData();
-            if (files.isEmpty()){ System.err.println("No JSON files in ./data"); return; }
-            System.out.println("Found " + files.size() + " JSON file(s) under ./data. Running all...");
-            for (Path p : files){
-                try { runOne(p.toString()); }
-                catch (Throwable t){ System.err.println("Failed on dataset "+p+": "+t.getMessage()); }
-            }
-            System.out.println("\nAll done. See " + CSV_PATH);
-        } else {
+        if (dataPath == null && !runAll){
             System.out.println("Usage:");
             System.out.println("  --data <path>   # single dataset");
             System.out.println("  --all           # run all data/*.json");
+            System.out.println("  --scc <mode>    # iterative (default) | recursive | parallel");
+            System.out.println("  --jobs <N>      # process N datasets concurrently (default 1)");
+            System.out.println("  --quiet         # skip per-component / per-distance console output");
+            System.out.println("  --kpaths <K>    # also print K shortest routes and K longest chains");
+            System.out.println("  --sources a,b,c # one run per source (overrides the dataset's source)");
+            System.out.println("  --cache-mb <MB> # LRU cache of SCC/condensation/topo results by graph content");
+            System.out.println("  --cache-dir <d> # also persist cache entries under d (implies --cache-mb 256)");
+            System.out.println("  --metrics       # print per-phase latency percentiles and counter totals");
+            System.out.println("  --reduce        # transitive reduction of the condensation DAG; topo order and waves come from it");
+            System.out.println("  --verify        # check every offset and target of .csrg inputs (load only checks the header)");
+            System.out.println("  --external <d>  # stream edges from disk (O(n) heap), semi-external SCC, condensation written to d");
+            System.out.println("  --serve <port>  # with --data: keep the graph resident and answer HTTP queries on localhost");
             System.out.println("  (no args)       # same as --all (IntelliJ Run)");
+            return;
+        }
+        if (cacheDir != null && cacheMb == 0) cacheMb = 256;
+        if (cacheMb > 0) opt.cache = new AnalysisCache(cacheMb << 20, cacheDir != null ? Paths.get(cacheDir) : null);
+        CsvSink csv;
+        try { csv = initCsv(fresh); }
+        catch (IllegalStateException e) { System.err.println(e.getMessage()); return; }
+        int failed;
+        try (CsvSink sink = csv) {
+            if (dataPath != null) failed = runBatch(List.of(dataPath), opt, sink);
+            else {
+                List<Path> files = findAllJsonUnderData();
+                if (files.isEmpty()){ System.err.println("No JSON files in ./data"); return; }
+                System.out.println("Found " + files.size() + " JSON file(s) under ./data. Running all...");
+                List<String> datasets = new ArrayList<>();
+                for (Path p : files) datasets.add(p.toString());
+                failed = runBatch(datasets, opt, sink);
+                System.out.println("\nAll done. See " + CSV_PATH);
+            }
+        }
+        // WHY: the batch drains and the CSV is flushed first; then any failure fails the process, like a bad --data always did
+        if (failed > 0) {
+            System.err.println(failed + " dataset run(s) failed");
+            System.exit(1);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,331 @@
+package main;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import common.Graph;
+import graph.dagsp.CriticalPathMethod;
+import graph.dagsp.LongDagLongestPath;
+import graph.dagsp.LongDagShortestPaths;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.ReachabilityIndex;
+import graph.topo.TopologicalSortKahn;
+import io.GraphIO;
+import utils.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Long-running localhost HTTP server over one resident graph: SCCs, both condensation DAGs and their
+ * topological order are computed once per load and answered from memory.
+ *
+ * The loaded state is an immutable Snapshot behind an AtomicReference. Every request reads it once and
+ * works on that snapshot only, so /reload builds the next snapshot off to the side and swaps it in
+ * without blocking or disturbing readers. Per-source DP results are memoised inside the snapshot
+ * (LRU bounded by estimated bytes, like AnalysisCache), so repeated queries from the same source are lookups.
+ *
+ * Endpoints (GET, vertices are original task ids, answers are JSON):
+ *   /component?v=  /reaches?from=&to=  /dist?source=&target=  /path?source=&target=  /critical[?source=]  /cpm  /stats
+ * and POST /reload[?path=], where path must name a file in the directory of the dataset the server
+ * started with. Other methods get 405; unexpected failures answer a generic 500 and are logged to stderr.
+ */
+public final class QueryServer {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final long MEMO_BYTES = 64L << 20; // per memo (shortest, longest) and snapshot
+
+    // Everything one graph version needs to answer queries; never mutated after construction
+    static final class Snapshot {
+        final long version;
+        final String dataset;
+        final Graph graph;
+        final int defaultSource;
+        final TarjanSCC.Result scc;
+        final CondensationGraph.Result dags;
+        final int[] topo, compWeights;
+        final CriticalPathMethod.Result cpm;
+        final ReachabilityIndex reach;
+        final Memo<LongDagShortestPaths> shortest;
+        final Memo<LongDagLongestPath> longest;
+
+        Snapshot(long version, String dataset) throws Exception {
+            this.version = version;
+            this.dataset = dataset;
+            GraphIO.Loaded loaded = GraphIO.load(dataset);
+            this.graph = loaded.graph;
+            this.defaultSource = loaded.source;
+            this.scc = new IterativeTarjanSCC().compute(graph, new Metrics());
+            this.dags = CondensationGraph.build(graph, scc.compOf, scc.count());
+            this.topo = TopologicalSortKahn.orderArray(dags.min, new Metrics());
+            this.compWeights = loaded.nodeWeighted()
+                    ? CondensationGraph.aggregateNodeWeights(loaded.nodeWeights, scc.compOf, scc.count()) : null;
+            this.cpm = new CriticalPathMethod(dags.max, topo, compWeights).compute(new Metrics());
+            this.reach = new ReachabilityIndex(dags.min, topo, ReachabilityIndex.DEFAULT_CLOSURE_BYTES,
+                    ReachabilityIndex.DEFAULT_LABELS, version, new Metrics());
+            // Long DP state per source: long dist[c], reached bitset, int prev[c]
+            long dpBytes = Memo.ENTRY_OVERHEAD + 12L * scc.count() + 8L * ((scc.count() + 63) >>> 6);
+            this.shortest = new Memo<>(MEMO_BYTES, dpBytes);
+            this.longest = new Memo<>(MEMO_BYTES, dpBytes);
+        }
+
+        // WHY: computed outside the lock; two racing requests may both compute, the second put is harmless
+        LongDagShortestPaths shortestFrom(int comp) {
+            LongDagShortestPaths sp = shortest.get(comp);
+            if (sp != null) return sp;
+            sp = new LongDagShortestPaths(dags.min, comp, topo, compWeights);
+            sp.run(new Metrics());
+            shortest.put(comp, sp);
+            return sp;
+        }
+
+        LongDagLongestPath longestFrom(int comp) {
+            LongDagLongestPath lp = longest.get(comp);
+            if (lp != null) return lp;
+            lp = new LongDagLongestPath(dags.max, comp, topo, compWeights);
+            lp.run(new Metrics());
+            longest.put(comp, lp);
+            return lp;
+        }
+    }
+
+    // Access-ordered LRU of per-source results, evicting eldest entries until the estimated bytes fit
+    static final class Memo<V> {
+        static final long ENTRY_OVERHEAD = 128; // result object, array headers, map node, boxed key
+        private final LinkedHashMap<Integer, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxBytes, entryBytes; // all entries of one snapshot have the same size
+        private long bytes;
+
+        Memo(long maxBytes, long entryBytes) { this.maxBytes = maxBytes; this.entryBytes = entryBytes; }
+
+        synchronized V get(int key) { return map.get(key); }
+
+        synchronized void put(int key, V v) {
+            if (entryBytes > maxBytes) return; // EDGE: one result larger than the budget → never memoised
+            if (map.put(key, v) == null) bytes += entryBytes;
+            Iterator<V> it = map.values().iterator();
+            while (bytes > maxBytes) {
+                it.next();
+                it.remove();
+                bytes -= entryBytes;
+            }
+        }
+
+        synchronized int size() { return map.size(); }
+        synchronized long bytes() { return bytes; }
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong(), queries = new AtomicLong();
+    private final Object reloadLock = new Object();
+    private final Path dataDir; // /reload?path= is confined to this directory
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public QueryServer(String dataset) throws Exception {
+        current.set(new Snapshot(versions.incrementAndGet(), dataset));
+        Path parent = Paths.get(dataset).toRealPath().getParent();
+        this.dataDir = parent != null ? parent : Paths.get("").toRealPath();
+    }
+
+    // Binds to the loopback interface; port 0 picks a free port (see port())
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/component", ex -> handle(ex, "GET", this::component));
+        server.createContext("/reaches", ex -> handle(ex, "GET", this::reaches));
+        server.createContext("/dist", ex -> handle(ex, "GET", this::dist));
+        server.createContext("/path", ex -> handle(ex, "GET", this::path));
+        server.createContext("/critical", ex -> handle(ex, "GET", this::critical));
+        server.createContext("/cpm", ex -> handle(ex, "GET", this::cpm));
+        server.createContext("/stats", ex -> handle(ex, "GET", this::stats));
+        // WHY: state-changing, so not reachable by a plain link or prefetch
+        server.createContext("/reload", ex -> handle(ex, "POST", this::reload));
+        server.start();
+    }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // Builds the next snapshot (caller's thread) and swaps it in; readers keep using whichever they hold
+    public long reload(String dataset) throws Exception {
+        synchronized (reloadLock) { // WHY: serialises reloads only; queries never take this lock
+            Snapshot next = new Snapshot(versions.incrementAndGet(), dataset != null ? dataset : current.get().dataset);
+            current.set(next);
+            return next.version;
+        }
+    }
+
+    Snapshot snapshot() { return current.get(); }
+
+    // Virtual threads when the runtime has them (JDK 21+), otherwise a bounded platform pool
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2), r -> {
+                Thread t = new Thread(r, "query-server");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ---------- handlers (each reads the snapshot exactly once) ----------
+
+    interface Handler { Map<String, Object> answer(Snapshot s, Map<String, String> q) throws Exception; }
+
+    private void handle(HttpExchange ex, String method, Handler h) throws IOException {
+        int status = 200;
+        Map<String, Object> body;
+        if (!method.equals(ex.getRequestMethod())) {
+            status = 405;
+            body = Map.of("error", "Use " + method);
+            ex.getResponseHeaders().set("Allow", method);
+        } else try {
+            queries.incrementAndGet();
+            body = h.answer(current.get(), params(ex.getRequestURI().getRawQuery()));
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = Map.of("error", String.valueOf(e.getMessage()));
+        } catch (Exception e) {
+            // WHY: exception text can carry file paths and internals; the client only learns that it failed
+            status = 500;
+            body = Map.of("error", "internal error");
+            System.err.println("QueryServer: " + ex.getRequestURI().getPath() + " failed: " + e);
+        }
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) { out.write(bytes); }
+    }
+
+    private Map<String, Object> component(Snapshot s, Map<String, String> q) {
+        int v = vertex(s, q, "v");
+        int c = s.scc.compOf[v];
+        Map<String, Object> r = base(s);
+        r.put("vertex", v);
+        r.put("component", c);
+        r.put("size", s.scc.size(c));
+        r.put("members", Arrays.copyOfRange(s.scc.members, s.scc.compStart[c], s.scc.compStart[c + 1]));
+        return r;
+    }
+
+    private Map<String, Object> reaches(Snapshot s, Map<String, String> q) {
+        int from = vertex(s, q, "from"), to = vertex(s, q, "to");
+        Map<String, Object> r = base(s);
+        r.put("from", from); r.put("to", to);
+        r.put("reaches", s.reach.reachesTask(s.scc.compOf, from, to));
+        return r;
+    }
+
+    private Map<String, Object> dist(Snapshot s, Map<String, String> q) {
+        int src = vertex(s, q, "source"), dst = vertex(s, q, "target");
+        LongDagShortestPaths sp = s.shortestFrom(s.scc.compOf[src]);
+        int t = s.scc.compOf[dst];
+        Map<String, Object> r = base(s);
+        r.put("source", src); r.put("target", dst);
+        r.put("reachable", sp.reachable(t));
+        r.put("distance", sp.reachable(t) ? sp.distTo(t) : null);
+        return r;
+    }
+
+    private Map<String, Object> path(Snapshot s, Map<String, String> q) {
+        Map<String, Object> r = dist(s, q);
+        int t = s.scc.compOf[vertex(s, q, "target")];
+        r.put("components", s.shortestFrom(s.scc.compOf[vertex(s, q, "source")]).pathArray(t));
+        return r;
+    }
+
+    private Map<String, Object> critical(Snapshot s, Map<String, String> q) {
+        int src = q.containsKey("source") ? vertex(s, q, "source") : clamp(s, s.defaultSource);
+        LongDagLongestPath lp = s.longestFrom(s.scc.compOf[src]);
+        Map<String, Object> r = base(s);
+        r.put("source", src);
+        r.put("length", lp.longestValue());
+        r.put("components", lp.criticalPathArray());
+        return r;
+    }
+
+    private Map<String, Object> cpm(Snapshot s, Map<String, String> q) {
+        Map<String, Object> r = base(s);
+        r.put("duration", s.cpm.duration);
+        r.put("criticalComponents", s.cpm.criticalComponents);
+        r.put("criticalTasks", s.cpm.criticalTasks(s.scc));
+        return r;
+    }
+
+    private Map<String, Object> stats(Snapshot s, Map<String, String> q) {
+        Map<String, Object> r = base(s);
+        r.put("dataset", s.dataset);
+        r.put("n", s.graph.n()); r.put("m", s.graph.m());
+        r.put("components", s.scc.count()); r.put("dagEdges", s.dags.min.m());
+        r.put("reachIndex", s.reach.mode().name()); r.put("reachIndexBytes", s.reach.bytes());
+        r.put("memoBytes", s.shortest.bytes() + s.longest.bytes());
+        r.put("queries", queries.get());
+        return r;
+    }
+
+    private Map<String, Object> reload(Snapshot s, Map<String, String> q) throws Exception {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("version", reload(q.containsKey("path") ? allowedDataset(q.get("path")) : null));
+        return r;
+    }
+
+    // A regular file inside dataDir (after resolving symlinks and ..), relative paths taken from the working directory
+    private String allowedDataset(String raw) {
+        Path p;
+        try { p = Paths.get(raw).toRealPath(); }
+        catch (IOException | InvalidPathException e) { throw new IllegalArgumentException("No such dataset: " + raw); }
+        if (!p.startsWith(dataDir) || !Files.isRegularFile(p))
+            throw new IllegalArgumentException("path must name a dataset file in the server's data directory");
+        return p.toString();
+    }
+
+    // ---------- helpers ----------
+
+    private static Map<String, Object> base(Snapshot s) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("version", s.version);
+        return r;
+    }
+
+    private static int clamp(Snapshot s, int v) { return Math.max(0, Math.min(v, s.graph.n() - 1)); }
+
+    private static int vertex(Snapshot s, Map<String, String> q, String name) {
+        String raw = q.get(name);
+        if (raw == null) throw new IllegalArgumentException("Missing parameter: " + name);
+        int v;
+        try { v = Integer.parseInt(raw.trim()); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException("Not a vertex id: " + name + "=" + raw); }
+        if (v < 0 || v >= s.graph.n()) throw new IllegalArgumentException("Vertex " + v + " out of range [0," + s.graph.n() + ")");
+        return v;
+    }
+
+    private static Map<String, String> params(String raw) {
+        Map<String, String> q = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return q;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq < 0) q.put(URLDecoder.decode(kv, StandardCharsets.UTF_8), "");
+            else q.put(URLDecoder.decode(kv.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(kv.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+}
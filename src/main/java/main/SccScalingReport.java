@@ -0,0 +1,70 @@
+package main;
+
+import common.Graph;
+import graph.gen.GraphGenerator;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.TarjanSCC;
+import utils.Metrics;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scaling benchmark for the parallel SCC engine: runs ParallelSCC on pools of 1, 2, 4 … max threads
+ * against the sequential iterative Tarjan baseline and prints a markdown table. Only meaningful on a host
+ * with at least maxThreads cores; with fewer it measures scheduling overhead and says so.
+ *
+ * Usage: java -cp ... main.SccScalingReport [n] [m] [maxThreads] [repeats]
+ */
+public class SccScalingReport {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int repeats = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        Graph g = randomGraph(n, m, 42L);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("graph: n=%d m=%d, cores=%d%n", n, m, cores);
+        if (cores < maxThreads)
+            System.out.printf("note: only %d core(s) for up to %d threads; rows above %d threads show overhead, not scaling%n", cores, maxThreads, cores);
+        System.out.println();
+
+        TarjanSCC.Result base = null;
+        double baseMs = Double.MAX_VALUE;
+        for (int r = 0; r < repeats; r++) {
+            Metrics mt = new Metrics();
+            base = new IterativeTarjanSCC().compute(g, mt);
+            baseMs = Math.min(baseMs, mt.getElapsedMillisDouble());
+        }
+        System.out.println("| engine | threads | best ms | speedup vs Tarjan | components |");
+        System.out.println("|---|---|---|---|---|");
+        System.out.printf("| iterative Tarjan | 1 | %.1f | 1.00 | %d |%n", baseMs, base.count());
+
+        for (int t = 1; t <= maxThreads; t = (t == maxThreads ? t + 1 : Math.min(t * 2, maxThreads))) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            double best = Double.MAX_VALUE;
+            TarjanSCC.Result res = null;
+            for (int r = 0; r < repeats; r++) {
+                Metrics mp = new Metrics();
+                res = new ParallelSCC(pool).compute(g, mp);
+                best = Math.min(best, mp.getElapsedMillisDouble());
+            }
+            pool.shutdown();
+            if (res.count() != base.count()) throw new IllegalStateException("component count mismatch");
+            System.out.printf("| parallel FW-BW | %d | %.1f | %.2f | %d |%n", t, best, baseMs / best, res.count());
+        }
+    }
+
+    // 1000-vertex planted SCCs on 100 condensation levels, via the seeded generator
+    static Graph randomGraph(int n, int m, long seed) {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = n;
+        s.m = m;
+        s.sccCount = Math.max(1, n / 1000);
+        s.depth = 100;
+        s.seed = seed;
+        return GraphGenerator.build(s);
+    }
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR-style log-linear histogram of nanosecond latencies: values below 32 are exact, above that every
+ * power of two is split into 32 sub-buckets, so any percentile is within about 3% of the true value.
+ * Fixed size (1920 buckets), lock-free, safe to record from any thread.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB + (63 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0; // EDGE: clock went backwards
+        counts.incrementAndGet(index(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int mag = 63 - Long.numberOfLeadingZeros(v);   // floor(log2 v) >= SUB_BITS
+        int sub = (int) (v >>> (mag - SUB_BITS)) - SUB;  // the SUB_BITS bits below the leading one
+        return SUB + (mag - SUB_BITS) * SUB + sub;
+    }
+
+    // Smallest value that falls into bucket i
+    static long lowerBound(int i) {
+        if (i < SUB) return i;
+        int k = i - SUB, mag = k / SUB + SUB_BITS;
+        return (long) (SUB + k % SUB) << (mag - SUB_BITS);
+    }
+
+    public long count() { return count.sum(); }
+
+    public long max() { return max.get(); }
+
+    public double mean() {
+        long c = count.sum();
+        return c == 0 ? 0 : (double) sum.sum() / c;
+    }
+
+    // Value at quantile q in [0, 1] (bucket midpoint, capped at the recorded maximum)
+    public long percentile(double q) {
+        long total = count.sum();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * total)), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                long lo = lowerBound(i), hi = i + 1 < BUCKETS ? lowerBound(i + 1) : Long.MAX_VALUE;
+                return Math.min(max.get(), lo + (hi - lo - 1) / 2);
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset(); sum.reset(); max.set(0);
+    }
+}
@@ -1,31 +1,66 @@
 package utils;
 
+/**
+ * Per-run counters and timestamps for one phase. An instance belongs to the thread running the phase,
+ * so the hot loops bump plain long fields; parallel phases sum their workers' LongAdders into it once.
+ * publish() hands the finished phase to the thread-safe MetricsRegistry (latency histogram + JFR event).
+ *
+ * Counting is switched off with -Dmetrics.enabled=false. ENABLED is a static final constant, so the JIT
+ * folds every `if (Metrics.ENABLED) metrics.x++` guard away and the hot loops pay nothing; start()/stop()
+ * still run because phase times feed the CSV.
+ */
 public class Metrics {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("metrics.enabled"));
+
     public long startTime;
     public long endTime;
 
-    // Counters
-    public int dfsCalls = 0;
-    public int edgesVisited = 0;
-    public int topoPushes = 0;
-    public int topoPops = 0;
-    public int relaxations = 0;
+    // Counters (long: billion-edge runs overflow int)
+    public long dfsCalls = 0;
+    public long edgesVisited = 0;
+    public long topoPushes = 0;
+    public long topoPops = 0;
+    public long relaxations = 0;
 
+    // Incremental updates: how many were applied and how long each took
+    public long updates = 0;
+    public long updateNanosTotal = 0;
+    public long updateNanosMax = 0;
 
     public void start() { startTime = System.nanoTime(); }
     public void stop()  { endTime = System.nanoTime(); }
 
+    public long getElapsedNanos() { return endTime - startTime; }
+
     public long getElapsedMillis() { return (endTime - startTime) / 1_000_000; }
 
     public long getElapsedMicros() { return (endTime - startTime) / 1_000; }
     public double getElapsedMillisDouble() { return (endTime - startTime) / 1_000_000.0; }
 
+    public void recordUpdate(long nanos) {
+        if (!ENABLED) return;
+        updates++;
+        updateNanosTotal += nanos;
+        if (nanos > updateNanosMax) updateNanosMax = nanos;
+        MetricsRegistry.global().recordUpdate(nanos);
+    }
+
+    public double getMeanUpdateMicros() { return updates == 0 ? 0 : updateNanosTotal / 1_000.0 / updates; }
+
+    // Adds this finished phase to the global registry under `phase`
+    public void publish(String phase) {
+        if (ENABLED) MetricsRegistry.global().record(phase, this);
+    }
+
     public void reset() {
         dfsCalls = 0;
         edgesVisited = 0;
         topoPushes = 0;
         topoPops = 0;
         relaxations = 0;
+        updates = 0;
+        updateNanosTotal = 0;
+        updateNanosMax = 0;
         startTime = 0;
         endTime = 0;
     }
@@ -37,6 +72,8 @@ public class Metrics {
                 ", edgesVisited=" + edgesVisited +
                 ", topoPushes=" + topoPushes +
                 ", topoPops=" + topoPops +
-                ", relaxations=" + relaxations;
+                ", relaxations=" + relaxations +
+                (updates > 0 ? String.format(", updates=%d, meanUpdate_us=%.3f, maxUpdate_us=%.3f",
+                        updates, getMeanUpdateMicros(), updateNanosMax / 1_000.0) : "");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide aggregate of published phases: striped LongAdder counters and a latency histogram per
+ * phase name, safe for concurrent dataset jobs. Each record also commits a PhaseEvent when a JFR
+ * recording has it enabled; otherwise the event costs one isEnabled() check.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    public static final String UPDATE = "update"; // incremental repairs (Metrics.recordUpdate)
+
+    public static MetricsRegistry global() { return GLOBAL; }
+
+    public static final class Phase {
+        public final String name;
+        public final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder dfsCalls = new LongAdder(), edgesVisited = new LongAdder(), topoPushes = new LongAdder(),
+                topoPops = new LongAdder(), relaxations = new LongAdder();
+        Phase(String name) { this.name = name; }
+
+        public long runs() { return latency.count(); }
+        public long dfsCalls() { return dfsCalls.sum(); }
+        public long edgesVisited() { return edgesVisited.sum(); }
+        public long topoPushes() { return topoPushes.sum(); }
+        public long topoPops() { return topoPops.sum(); }
+        public long relaxations() { return relaxations.sum(); }
+    }
+
+    private final ConcurrentHashMap<String, Phase> phases = new ConcurrentHashMap<>();
+
+    public Phase phase(String name) { return phases.computeIfAbsent(name, Phase::new); }
+
+    public void record(String name, Metrics m) {
+        Phase p = phase(name);
+        long nanos = m.getElapsedNanos();
+        p.latency.record(nanos);
+        p.dfsCalls.add(m.dfsCalls); p.edgesVisited.add(m.edgesVisited);
+        p.topoPushes.add(m.topoPushes); p.topoPops.add(m.topoPops); p.relaxations.add(m.relaxations);
+
+        PhaseEvent e = new PhaseEvent();
+        if (e.isEnabled()) {
+            e.phase = name; e.elapsed = nanos;
+            e.dfsCalls = m.dfsCalls; e.edgesVisited = m.edgesVisited;
+            e.topoPushes = m.topoPushes; e.topoPops = m.topoPops; e.relaxations = m.relaxations;
+            e.commit();
+        }
+    }
+
+    public void recordUpdate(long nanos) {
+        phase(UPDATE).latency.record(nanos);
+        PhaseEvent e = new PhaseEvent();
+        if (e.isEnabled()) { e.phase = UPDATE; e.elapsed = nanos; e.commit(); }
+    }
+
+    public Collection<Phase> phases() {
+        List<Phase> list = new ArrayList<>(phases.values());
+        list.sort(Comparator.comparing(p -> p.name));
+        return list;
+    }
+
+    public void reset() { phases.clear(); }
+
+    // One line per phase: runs, latency percentiles (ms) and counter totals
+    public String report() {
+        StringBuilder sb = new StringBuilder(String.format("%-14s %6s %10s %10s %10s %10s %14s %14s %14s%n",
+                "phase", "runs", "p50_ms", "p90_ms", "p99_ms", "max_ms", "edgesVisited", "relaxations", "topoPops"));
+        for (Phase p : phases()) {
+            LatencyHistogram h = p.latency;
+            sb.append(String.format("%-14s %6d %10.3f %10.3f %10.3f %10.3f %14d %14d %14d%n", p.name, p.runs(),
+                    h.percentile(0.5) / 1e6, h.percentile(0.9) / 1e6, h.percentile(0.99) / 1e6, h.max() / 1e6,
+                    p.edgesVisited(), p.relaxations(), p.topoPops()));
+        }
+        return sb.toString();
+    }
+}
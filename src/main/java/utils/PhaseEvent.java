@@ -0,0 +1,19 @@
+package utils;
+
+import jdk.jfr.*;
+
+// JFR event per published phase: `java -XX:StartFlightRecording=filename=run.jfr ...`, then `jfr print --events graph.Phase run.jfr`
+@Name("graph.Phase")
+@Label("Graph Pipeline Phase")
+@Category({"Graph", "Pipeline"})
+@Description("One finished pipeline phase with its counters")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    @Label("Phase") public String phase;
+    @Label("Elapsed") @Timespan(Timespan.NANOSECONDS) public long elapsed;
+    @Label("DFS Calls") public long dfsCalls;
+    @Label("Edges Visited") public long edgesVisited;
+    @Label("Topo Pushes") public long topoPushes;
+    @Label("Topo Pops") public long topoPops;
+    @Label("Relaxations") public long relaxations;
+}
@@ -0,0 +1,67 @@
+package common;
+
+import graph.topo.ParallelTopologicalSort;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    @Test
+    public void keepsInsertionOrderPerVertexAndTransposes() {
+        DirectedGraph g = new DirectedGraph(4);
+        g.addEdge(2, 3, 7);
+        g.addEdge(0, 2, 5);
+        g.addEdge(0, 1, 4);
+        g.addEdge(1, 2, 1);
+
+        assertEquals(4, g.m());
+        assertEquals(2, g.outDegree(0));
+        assertEquals(2, g.target(g.begin(0)));     // first added edge of 0 comes first
+        assertEquals(1, g.target(g.begin(0) + 1));
+        assertEquals(4, g.weight(g.begin(0) + 1));
+
+        // adding after freezing must keep previous edges
+        g.addEdge(3, 0, 9);
+        assertEquals(5, g.m());
+        assertEquals(0, g.target(g.begin(3)));
+
+        CsrGraph rev = CsrGraph.transpose(g);
+        assertEquals(2, rev.outDegree(2));          // in-edges of 2: from 0 and 1
+        assertEquals(9, rev.weight(rev.begin(0)));  // 3->0 reversed
+    }
+
+    @Test
+    public void rejectsOutOfRangeEndpoints() {
+        DirectedGraph g = new DirectedGraph(2);
+        g.addEdge(0, 5, 1);
+        assertThrows(IllegalArgumentException.class, g::csr);
+    }
+
+    @Test
+    public void unfrozenBuilderIsSafeForParallelEngines() {
+        // WHY: above PAR_EDGES the parallel sort reads target(e) from several workers before anything froze g
+        ForkJoinPool pool = new ForkJoinPool(4), single = new ForkJoinPool(1);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Random rnd = new Random(round);
+                int n = 50_000;
+                DirectedGraph g = new DirectedGraph(n, 4 * n);
+                for (int i = 0; i < 4 * n; i++) {
+                    int a = rnd.nextInt(n), b = rnd.nextInt(n);
+                    if (a != b) g.addEdge(Math.min(a, b), Math.max(a, b), 1);
+                }
+                ParallelTopologicalSort.Result par = new ParallelTopologicalSort(pool).sort(g, new Metrics());
+                ParallelTopologicalSort.Result seq = new ParallelTopologicalSort(single).sort(g.csr(), new Metrics());
+                assertArrayEquals(seq.order, par.order);
+            }
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+}
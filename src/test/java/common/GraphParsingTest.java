@@ -2,6 +2,10 @@ package common;
 
 import io.GraphIO;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,4 +19,33 @@ public class GraphParsingTest {
         assertEquals("edge", loaded.weightModel);
         assertTrue(loaded.graph.getEdges().size() > 0);
     }
+
+    @Test
+    public void streamsFieldsInAnyOrderWithDefaults(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("g.json");
+        Files.writeString(f, "{\"edges\":[{\"w\":4,\"u\":0,\"v\":1,\"note\":[1]},{\"u\":1,\"v\":2,\"w\":6}],"
+                + "\"extra\":{\"a\":1},\"n\":3,\"directed\":true}");
+        GraphIO.Loaded loaded = GraphIO.load(f.toString());
+        assertEquals(3, loaded.graph.n());
+        assertEquals(2, loaded.graph.m());
+        assertEquals(0, loaded.source);
+        assertEquals("edge", loaded.weightModel);
+        assertEquals(4, loaded.graph.weight(loaded.graph.begin(0)));
+
+        Files.writeString(f, "{\"directed\":false,\"n\":1,\"edges\":[]}");
+        assertThrows(IllegalArgumentException.class, () -> GraphIO.load(f.toString()));
+    }
+
+    @Test
+    public void rejectsMalformedEdgeLists(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("g.json");
+        for (String edges : new String[]{
+                "[{\"u\":0,\"v\":1},7,{\"u\":1,\"v\":2}]", // non-object element mid-list
+                "[{\"u\":0,\"v\":1},[1,2]]",
+                "[{\"u\":0}]",                            // missing v
+                "[{\"v\":1,\"w\":3}]"}) {                  // missing u
+            Files.writeString(f, "{\"directed\":true,\"n\":3,\"edges\":" + edges + "}");
+            assertThrows(IllegalArgumentException.class, () -> GraphIO.load(f.toString()), edges);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package graph.dagsp;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import graph.gen.GraphGenerator;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CriticalPathMethodTest {
+
+    @Test
+    public void diamondHasTwoCriticalBranchesAndSlackOnTheThird() {
+        // 0 → 1 → 3 and 0 → 2 → 3 both take 5; 0 → 4 → 3 takes 3
+        DirectedGraph g = new DirectedGraph(5);
+        g.addEdge(0, 1, 2); g.addEdge(1, 3, 3);
+        g.addEdge(0, 2, 4); g.addEdge(2, 3, 1);
+        g.addEdge(0, 4, 1); g.addEdge(4, 3, 2);
+        CriticalPathMethod.Result r = new CriticalPathMethod(g).compute(new Metrics());
+
+        assertEquals(5, r.duration);
+        assertArrayEquals(new long[]{0, 2, 4, 5, 1}, r.earliest);
+        assertArrayEquals(new long[]{0, 2, 4, 5, 3}, r.latest);
+        assertEquals(2, r.slack[4]);
+        assertEquals(4, r.criticalComponents.length);
+        assertEquals(4, r.criticalEdgeFrom.length);
+        assertEquals(5, r.durationIfDelayed(4, 2));
+        assertEquals(6, r.durationIfDelayed(4, 3));
+        assertEquals(7, r.durationIfDelayed(1, 2));
+    }
+
+    @Test
+    public void agreesWithLongestPathAndMapsBackToTasks() {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 5000; s.m = 20000; s.sccCount = 800; s.depth = 40; s.seed = 21;
+        CsrGraph g = GraphGenerator.build(s);
+        TarjanSCC.Result scc = new IterativeTarjanSCC().compute(g, new Metrics());
+        CsrGraph dag = CondensationGraph.build(g, scc.compOf, scc.count()).max;
+        int src = scc.compOf[0];
+
+        CriticalPathMethod.Result r = new CriticalPathMethod(dag).compute(src, new Metrics());
+        DagLongestPath lp = new DagLongestPath(dag, src);
+        lp.run(new Metrics());
+        assertEquals(lp.longestValue(), r.duration);
+        for (int c : lp.criticalPath()) assertTrue(r.isCritical(c));
+        for (int c = 0; c < dag.n(); c++) {
+            if (r.slack[c] == CriticalPathMethod.UNREACHED) continue;
+            assertTrue(r.slack[c] >= 0);
+            for (int e = dag.begin(c); e < dag.end(c); e++) {
+                int v = dag.target(e);
+                assertTrue(r.earliest[c] + dag.weight(e) <= r.earliest[v]);
+                assertTrue(r.latest[c] + dag.weight(e) <= r.latest[v]);
+            }
+        }
+
+        int[] tasks = r.criticalTasks(scc);
+        for (int t : tasks) assertEquals(0, r.taskSlack(t, scc.compOf));
+        int expected = 0;
+        for (int v = 0; v < g.n(); v++) if (r.taskSlack(v, scc.compOf) == 0) expected++;
+        assertEquals(expected, tasks.length);
+    }
+}
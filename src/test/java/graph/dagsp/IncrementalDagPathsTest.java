@@ -0,0 +1,84 @@
+package graph.dagsp;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import graph.gen.GraphGenerator;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalDagPathsTest {
+
+    @Test
+    public void batchedUpdatesMatchFullRecomputation() {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 2000; s.m = 8000; s.sccCount = 500; s.depth = 30; s.seed = 9;
+        CsrGraph g = GraphGenerator.build(s);
+        TarjanSCC.Result r = new IterativeTarjanSCC().compute(g, new Metrics());
+        CondensationGraph.Result dags = CondensationGraph.build(g, r.compOf, r.count());
+        int n = dags.min.n(), src = r.compOf[0];
+
+        for (boolean longest : new boolean[]{false, true}) {
+            CsrGraph dag = longest ? dags.max : dags.min;
+            List<int[]> edges = new ArrayList<>();
+            Set<Long> present = new HashSet<>();
+            for (int u = 0; u < n; u++)
+                for (int e = dag.begin(u); e < dag.end(u); e++) {
+                    edges.add(new int[]{u, dag.target(e), dag.weight(e)});
+                    present.add(((long) u << 32) | dag.target(e));
+                }
+            IncrementalDagPaths inc = new IncrementalDagPaths(dag, src, longest);
+            Random rnd = new Random(3);
+            Metrics m = new Metrics();
+            for (int batch = 0; batch < 40; batch++) {
+                for (int k = 0; k < 1 + batch % 8; k++) {
+                    int op = rnd.nextInt(3);
+                    if (op == 0) {
+                        int[] e = edges.get(rnd.nextInt(edges.size()));
+                        e[2] = 1 + rnd.nextInt(100);
+                        assertTrue(inc.setWeight(e[0], e[1], e[2]));
+                    } else if (op == 1) {
+                        int u = rnd.nextInt(n), v = rnd.nextInt(n), w = 1 + rnd.nextInt(100);
+                        if (u == v || !present.add(((long) u << 32) | v)) continue;
+                        try {
+                            inc.addEdge(u, v, w);
+                            edges.add(new int[]{u, v, w});
+                        } catch (IllegalArgumentException cycle) {
+                            present.remove(((long) u << 32) | v);
+                        }
+                    } else {
+                        int[] e = edges.remove(rnd.nextInt(edges.size()));
+                        present.remove(((long) e[0] << 32) | e[1]);
+                        assertTrue(inc.removeEdge(e[0], e[1]));
+                    }
+                }
+                inc.repair(m);
+                assertFalse(inc.hasPendingUpdates());
+
+                DirectedGraph cur = new DirectedGraph(n);
+                for (int[] e : edges) cur.addEdge(e[0], e[1], e[2]);
+                if (longest) {
+                    DagLongestPath lp = new DagLongestPath(cur, src);
+                    lp.run(new Metrics());
+                    List<Integer> crit = lp.criticalPath();
+                    assertEquals(lp.longestValue(), Arrays.stream(inc.distances()).max().getAsInt());
+                    if (!crit.isEmpty()) assertEquals(lp.longestValue(), inc.distTo(crit.get(crit.size() - 1)));
+                } else {
+                    DagShortestPaths sp = new DagShortestPaths(cur, src);
+                    sp.run(new Metrics());
+                    int[] want = new int[n];
+                    for (int v = 0; v < n; v++) want[v] = sp.distTo(v);
+                    assertArrayEquals(want, inc.distances());
+                }
+                for (int[] e : edges) assertTrue(inc.position(e[0]) < inc.position(e[1]));
+            }
+            assertEquals(40, m.updates);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package graph.dagsp;
+
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KBestDagPathsTest {
+
+    private static DirectedGraph randomDag(int n, int m, Random rnd) {
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n - 1);
+            g.addEdge(u, u + 1 + rnd.nextInt(Math.min(6, n - u - 1)), rnd.nextInt(20));
+        }
+        return g;
+    }
+
+    // Every source path ending at target (or at any sink when target = -1), by DFS
+    private static void allPaths(DirectedGraph g, int u, long len, int target, List<Long> out) {
+        boolean sink = g.begin(u) == g.end(u);
+        if (target == u || (target == KBestDagPaths.ANY_SINK && sink)) out.add(len);
+        for (int e = g.begin(u); e < g.end(u); e++) allPaths(g, g.target(e), len + g.weight(e), target, out);
+    }
+
+    private static long lengthOf(DirectedGraph g, int[] path) {
+        long len = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            long best = Long.MIN_VALUE;
+            for (int e = g.begin(path[i]); e < g.end(path[i]); e++)
+                if (g.target(e) == path[i + 1]) best = Math.max(best, g.weight(e));
+            assertNotEquals(Long.MIN_VALUE, best, "not an edge: " + path[i] + "->" + path[i + 1]);
+            len += best;
+        }
+        return len;
+    }
+
+    @Test
+    public void matchesBruteForceEnumeration() {
+        Random rnd = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            int n = 12 + rnd.nextInt(10);
+            DirectedGraph g = randomDag(n, 2 * n, rnd);
+            boolean longest = round % 2 == 1;
+            int target = round % 3 == 0 ? KBestDagPaths.ANY_SINK : n - 1 - rnd.nextInt(4);
+
+            List<Long> expected = new ArrayList<>();
+            allPaths(g, 0, 0, target, expected);
+            expected.sort(longest ? Comparator.reverseOrder() : Comparator.naturalOrder());
+
+            KBestDagPaths kb = new KBestDagPaths(g, 0, longest, null, null, KBestDagPaths.DEFAULT_MAX_BYTES);
+            kb.run(new Metrics());
+            List<KBestDagPaths.Path> got = kb.best(target, expected.size() + 5);
+            assertEquals(expected.size(), got.size());
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < got.size(); i++) {
+                KBestDagPaths.Path p = got.get(i);
+                assertEquals(expected.get(i).longValue(), p.value, "rank " + i);
+                assertEquals(0, p.vertices[0]);
+                if (target != KBestDagPaths.ANY_SINK) assertEquals(target, p.vertices[p.vertices.length - 1]);
+                assertTrue(seen.add(Arrays.toString(p.vertices)) || hasParallelEdges(g), "duplicate path " + p);
+            }
+        }
+    }
+
+    private static boolean hasParallelEdges(DirectedGraph g) {
+        for (int u = 0; u < g.n(); u++) {
+            Set<Integer> heads = new HashSet<>();
+            for (int e = g.begin(u); e < g.end(u); e++) if (!heads.add(g.target(e))) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void firstPathIsTheDpOptimumAndPathsAreLazy() {
+        Random rnd = new Random(9);
+        DirectedGraph g = randomDag(2000, 8000, rnd);
+        LongDagShortestPaths sp = new LongDagShortestPaths(g, 0);
+        sp.run(new Metrics());
+        KBestDagPaths kb = KBestDagPaths.shortest(g, 0);
+        Iterator<KBestDagPaths.Path> it = kb.paths(1999);
+        KBestDagPaths.Path first = it.next();
+        assertEquals(sp.distTo(1999), first.value);
+        long afterFirst = kb.bytesUsed();
+
+        long prev = first.value;
+        for (int i = 0; i < 1000; i++) {
+            KBestDagPaths.Path p = it.next();
+            assertTrue(p.value >= prev);
+            prev = p.value;
+        }
+        assertTrue(kb.bytesUsed() > afterFirst);
+    }
+
+    @Test
+    public void memoryCapStopsEnumeration() {
+        Random rnd = new Random(3);
+        DirectedGraph g = randomDag(500, 3000, rnd);
+        KBestDagPaths kb = new KBestDagPaths(g, 0, true, null, null, 64 * 1024);
+        Iterator<KBestDagPaths.Path> it = kb.paths(KBestDagPaths.ANY_SINK);
+        assertThrows(IllegalStateException.class, () -> { for (int i = 0; i < 1_000_000 && it.hasNext(); i++) it.next(); });
+        assertTrue(kb.bytesUsed() > 64 * 1024);
+    }
+}
@@ -0,0 +1,65 @@
+package graph.dagsp;
+
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongDagPathsTest {
+
+    @Test
+    public void agreesWithIntVersionsWhenNothingOverflows() {
+        Random rnd = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            int n = 50 + rnd.nextInt(100);
+            DirectedGraph g = new DirectedGraph(n);
+            for (int i = 0; i < 3 * n; i++) {
+                int u = rnd.nextInt(n - 1);
+                g.addEdge(u, u + 1 + rnd.nextInt(n - u - 1), rnd.nextInt(100));
+            }
+            int src = rnd.nextInt(n / 2);
+            DagShortestPaths sp = new DagShortestPaths(g, src);
+            LongDagShortestPaths lsp = new LongDagShortestPaths(g, src);
+            DagLongestPath lp = new DagLongestPath(g, src);
+            LongDagLongestPath llp = new LongDagLongestPath(g, src);
+            sp.run(new Metrics()); lsp.run(new Metrics()); lp.run(new Metrics()); llp.run(new Metrics());
+            for (int v = 0; v < n; v++) {
+                assertEquals(sp.distTo(v) < Integer.MAX_VALUE / 4, lsp.reachable(v));
+                if (lsp.reachable(v)) assertEquals(sp.distTo(v), lsp.distTo(v));
+                assertEquals(sp.pathTo(v), lsp.pathTo(v));
+            }
+            assertEquals(lp.longestValue(), llp.longestValue());
+            assertEquals(lp.criticalPath(), llp.criticalPath());
+        }
+    }
+
+    @Test
+    public void longChainDoesNotWrap() {
+        // 10 edges of 10^9: the int DP wraps past its sentinels, the long one sums to 10^10
+        int n = 11;
+        DirectedGraph g = new DirectedGraph(n + 1);
+        for (int v = 0; v < n - 1; v++) g.addEdge(v, v + 1, 1_000_000_000);
+        LongDagShortestPaths sp = new LongDagShortestPaths(g, 0);
+        LongDagLongestPath lp = new LongDagLongestPath(g, 0);
+        sp.run(new Metrics()); lp.run(new Metrics());
+
+        assertEquals(10_000_000_000L, sp.distTo(n - 1));
+        assertEquals(10_000_000_000L, lp.longestValue());
+        assertEquals(n, lp.criticalPath().size());
+        assertFalse(sp.reachable(n)); // isolated vertex
+        assertTrue(sp.pathTo(n).isEmpty());
+    }
+
+    @Test
+    public void negativeWeightsAreRealDistancesNotSentinels() {
+        DirectedGraph g = new DirectedGraph(3);
+        g.addEdge(0, 1, Integer.MIN_VALUE); g.addEdge(1, 2, Integer.MIN_VALUE);
+        LongDagShortestPaths sp = new LongDagShortestPaths(g, 0);
+        sp.run(new Metrics());
+        assertTrue(sp.reachable(2));
+        assertEquals(2L * Integer.MIN_VALUE, sp.distTo(2));
+    }
+}
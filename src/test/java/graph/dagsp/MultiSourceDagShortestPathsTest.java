@@ -0,0 +1,89 @@
+package graph.dagsp;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import graph.gen.GraphGenerator;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSortKahn;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiSourceDagShortestPathsTest {
+
+    private static CsrGraph condensation() {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 3000; s.m = 12000; s.sccCount = 600; s.depth = 25; s.seed = 5;
+        CsrGraph g = GraphGenerator.build(s);
+        TarjanSCC.Result r = new IterativeTarjanSCC().compute(g, new Metrics());
+        return CondensationGraph.build(g, r.compOf, r.count()).min;
+    }
+
+    @Test
+    public void matchesSingleSourceRunsForEverySource() {
+        CsrGraph dag = condensation();
+        int[] topo = TopologicalSortKahn.orderArray(dag, new Metrics());
+        assertEquals(TopologicalSortKahn.order(dag, new Metrics()).size(), topo.length);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] sources = new int[37]; // WHY: not a multiple of the block width
+            for (int i = 0; i < sources.length; i++) sources[i] = (i * 131) % dag.n();
+            MultiSourceDagShortestPaths.Result r = new MultiSourceDagShortestPaths(dag, topo, pool).run(sources, new Metrics());
+            for (int i = 0; i < sources.length; i++) {
+                LongDagShortestPaths sp = new LongDagShortestPaths(dag, sources[i], topo, null);
+                sp.run(new Metrics());
+                for (int v = 0; v < dag.n(); v++)
+                    assertEquals(sp.reachable(v) ? sp.distTo(v) : MultiSourceDagShortestPaths.INF, r.distance(i, v));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void allPairsKeepsUnreachableAtInfWithNegativeWeights() {
+        DirectedGraph g = new DirectedGraph(4);
+        g.addEdge(0, 1, -3); g.addEdge(1, 2, 4); g.addEdge(0, 2, 5); g.addEdge(3, 2, -7);
+        MultiSourceDagShortestPaths.Result r = new MultiSourceDagShortestPaths(g, null).allPairs(new Metrics());
+        long INF = MultiSourceDagShortestPaths.INF;
+        assertArrayEquals(new long[]{0, -3, 1, INF}, r.row(0));
+        assertArrayEquals(new long[]{INF, 0, 4, INF}, r.row(1));
+        assertArrayEquals(new long[]{INF, INF, 0, INF}, r.row(2));
+        assertArrayEquals(new long[]{INF, INF, -7, 0}, r.row(3));
+        assertFalse(r.reachable(2, 0));
+    }
+
+    @Test
+    public void heavyLongChainsStayExactAndReachable() {
+        // two chains of 4000 edges near ±2^30 (sums far past 2^31), with random shortcuts between them
+        int len = 4000, n = 2 * len + 1;
+        Random rnd = new Random(9);
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i + 1 < len; i++) {
+            g.addEdge(i, i + 1, (1 << 30) + rnd.nextInt(1000));
+            g.addEdge(len + i, len + i + 1, -(1 << 30) - rnd.nextInt(1000));
+            if (rnd.nextInt(4) == 0) g.addEdge(i, len + 1 + i + rnd.nextInt(len - i - 1), rnd.nextInt(1 << 30));
+        }
+        // vertex 2*len only has an edge into chain 2: unreachable from everything but itself
+        g.addEdge(n - 1, len + len / 2, Integer.MAX_VALUE);
+        int[] sources = {0, 1, len / 2, len, len + 1, n - 1, len - 1, 2 * len - 1, 17};
+        MultiSourceDagShortestPaths.Result r = new MultiSourceDagShortestPaths(g, null).run(sources, new Metrics());
+        for (int i = 0; i < sources.length; i++) {
+            LongDagShortestPaths ref = new LongDagShortestPaths(g, sources[i]);
+            ref.run(new Metrics());
+            for (int v = 0; v < n; v++) {
+                assertEquals(ref.reachable(v), r.reachable(i, v), "source " + sources[i] + " -> " + v);
+                if (ref.reachable(v)) assertEquals(ref.distTo(v), r.distance(i, v));
+            }
+        }
+        assertTrue(r.distance(0, len - 1) > Integer.MAX_VALUE);
+        assertTrue(r.distance(3, 2 * len - 1) < Integer.MIN_VALUE);
+    }
+}
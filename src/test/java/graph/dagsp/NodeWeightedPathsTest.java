@@ -0,0 +1,88 @@
+package graph.dagsp;
+
+import common.DirectedGraph;
+import graph.scc.CondensationGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeWeightedPathsTest {
+
+    // Random DAG on edges u < v with ignored edge weights and per-vertex durations
+    private static DirectedGraph randomDag(int n, int m, Random rnd) {
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n - 1);
+            g.addEdge(u, u + 1 + rnd.nextInt(n - u - 1), 1 + rnd.nextInt(50));
+        }
+        return g;
+    }
+
+    // Split-node expansion: v_in = 2v → v_out = 2v+1 weighs w[v], u_out → v_in weighs 0
+    private static DirectedGraph split(DirectedGraph g, int[] w) {
+        DirectedGraph s = new DirectedGraph(2 * g.n());
+        for (int v = 0; v < g.n(); v++) s.addEdge(2 * v, 2 * v + 1, w[v]);
+        for (int u = 0; u < g.n(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++) s.addEdge(2 * u + 1, 2 * g.target(e), 0);
+        return s;
+    }
+
+    @Test
+    public void nodeWeightedDpMatchesSplitNodeExpansion() {
+        Random rnd = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int n = 40 + rnd.nextInt(60);
+            DirectedGraph g = randomDag(n, 3 * n, rnd);
+            int[] w = new int[n];
+            for (int v = 0; v < n; v++) w[v] = rnd.nextInt(20);
+            DirectedGraph s = split(g, w);
+            int src = rnd.nextInt(n / 2);
+
+            DagShortestPaths sp = new DagShortestPaths(g, src, null, w);
+            DagShortestPaths spSplit = new DagShortestPaths(s, 2 * src, null);
+            DagLongestPath lp = new DagLongestPath(g, src, null, w);
+            DagLongestPath lpSplit = new DagLongestPath(s, 2 * src, null);
+            sp.run(new Metrics()); spSplit.run(new Metrics());
+            lp.run(new Metrics()); lpSplit.run(new Metrics());
+            for (int v = 0; v < n; v++) {
+                assertEquals(spSplit.distTo(2 * v + 1), sp.distTo(v), "shortest to " + v);
+            }
+            assertEquals(lpSplit.longestValue(), lp.longestValue());
+
+            CriticalPathMethod.Result node = new CriticalPathMethod(g, null, w).compute(new Metrics());
+            CriticalPathMethod.Result edge = new CriticalPathMethod(s).compute(new Metrics());
+            assertEquals(edge.duration, node.duration);
+            for (int v = 0; v < n; v++) {
+                assertEquals(edge.earliest[2 * v], node.earliest[v], "earliest start of " + v);
+                assertEquals(edge.slack[2 * v], node.slack[v], "slack of " + v);
+            }
+        }
+    }
+
+    @Test
+    public void nodeModelChainCountsEveryVertexOnce() {
+        DirectedGraph g = new DirectedGraph(3);
+        g.addEdge(0, 1, 100); g.addEdge(1, 2, 100);
+        int[] w = {2, 3, 4};
+        DagLongestPath lp = new DagLongestPath(g, 0, null, w);
+        lp.run(new Metrics());
+        assertEquals(9, lp.longestValue());
+        assertEquals(List.of(0, 1, 2), lp.criticalPath());
+
+        CriticalPathMethod.Result r = new CriticalPathMethod(g, null, w).compute(new Metrics());
+        assertEquals(9, r.duration);
+        assertArrayEquals(new long[]{0, 2, 5}, r.earliest);
+        assertEquals(3, r.criticalComponents.length);
+    }
+
+    @Test
+    public void componentWeightsAreSumsOfTheirTasks() {
+        int[] compOf = {0, 1, 0, 2, 1};
+        assertArrayEquals(new int[]{4, 7, 3}, CondensationGraph.aggregateNodeWeights(new int[]{1, 2, 3, 3, 5}, compOf, 3));
+        assertThrows(ArithmeticException.class,
+                () -> CondensationGraph.aggregateNodeWeights(new int[]{Integer.MAX_VALUE, 1}, new int[]{0, 0}, 1));
+    }
+}
@@ -0,0 +1,53 @@
+package graph.dagsp;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import graph.topo.TopologicalSortKahn;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelDagPathsTest {
+
+    @Test
+    public void bitIdenticalToSequentialDp() {
+        // 15 levels of 10,000 vertices, 3 edges into the next level each; few distinct weights → many ties
+        int width = 10_000, n = 15 * width;
+        Random rnd = new Random(4);
+        DirectedGraph dg = new DirectedGraph(n, 3 * n);
+        for (int v = 0; v < n - width; v++)
+            for (int k = 0; k < 3; k++) dg.addEdge(v, (v / width + 1) * width + rnd.nextInt(width), 1 + rnd.nextInt(3));
+        CsrGraph g = dg.csr();
+        int[] topo = TopologicalSortKahn.orderArray(g, new Metrics());
+        int src = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelDagPaths ps = new ParallelDagPaths(g, src, false, topo, null, pool);
+            ParallelDagPaths pl = new ParallelDagPaths(g, src, true, topo, null, pool);
+            ps.run(new Metrics());
+            pl.run(new Metrics());
+            DagShortestPaths ss = new DagShortestPaths(g, src, topo);
+            DagLongestPath sl = new DagLongestPath(g, src, topo);
+            ss.run(new Metrics());
+            sl.run(new Metrics());
+
+            int reachable = 0;
+            for (int v = 0; v < n; v++) {
+                assertEquals(ss.distTo(v), ps.distTo(v));
+                if (ss.distTo(v) < ParallelDagPaths.INF) reachable++;
+            }
+            assertTrue(reachable > n / 4);
+            for (int v = 0; v < n; v += 97) assertEquals(ss.pathTo(v), ps.pathTo(v));
+            int t = sl.argmax();
+            assertEquals(sl.longestValue(), pl.distTo(t));
+            assertEquals(sl.criticalPath(), pl.pathTo(t));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package graph.dagsp;
+
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathTreeTest {
+
+    @Test
+    public void arraysAndBulkVisitMatchListPaths() {
+        Random rnd = new Random(17);
+        int n = 3000;
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i < 4 * n; i++) {
+            int u = rnd.nextInt(n - 1);
+            g.addEdge(u, u + 1 + rnd.nextInt(Math.min(50, n - u - 1)), 1 + rnd.nextInt(30));
+        }
+        DagShortestPaths sp = new DagShortestPaths(g, 5);
+        sp.run(new Metrics());
+        PathTree tree = sp.pathTree();
+
+        int reachable = 0;
+        for (int v = 0; v < n; v++) {
+            List<Integer> list = sp.pathTo(v);
+            int[] arr = sp.pathArray(v);
+            assertEquals(list.size(), arr.length);
+            for (int i = 0; i < arr.length; i++) assertEquals(list.get(i).intValue(), arr[i]);
+            assertEquals(!list.isEmpty(), tree.contains(v));
+            if (tree.contains(v)) reachable++;
+        }
+
+        // every reachable target exactly once, each with its full path, prefixes shared through the buffer
+        int[] visits = new int[n];
+        long[] totalLength = new long[1];
+        tree.forEachPath((t, path, len) -> {
+            visits[t]++;
+            totalLength[0] += len;
+            assertArrayEquals(sp.pathArray(t), Arrays.copyOf(path, len));
+        });
+        int visited = 0;
+        long expectedLength = 0;
+        for (int v = 0; v < n; v++) {
+            assertTrue(visits[v] <= 1);
+            visited += visits[v];
+            expectedLength += tree.depth(v);
+        }
+        assertEquals(reachable, visited);
+        assertEquals(expectedLength, totalLength[0]);
+    }
+
+    @Test
+    public void longestPathArrayMatchesCriticalPath() {
+        DirectedGraph g = new DirectedGraph(5);
+        g.addEdge(0, 1, 2); g.addEdge(1, 3, 3); g.addEdge(0, 2, 4); g.addEdge(2, 3, 2); g.addEdge(3, 4, 1);
+        DagLongestPath lp = new DagLongestPath(g, 0);
+        lp.run(new Metrics());
+        assertArrayEquals(new int[]{0, 2, 3, 4}, lp.criticalPathArray());
+        assertEquals(lp.criticalPath(), List.of(0, 2, 3, 4));
+
+        int[] buf = new int[5];
+        assertEquals(3, lp.pathTree().pathTo(3, buf));
+        assertArrayEquals(new int[]{0, 2, 3}, Arrays.copyOf(buf, 3));
+        assertEquals(0, new PathTree(0, new int[]{-1, -1}).pathTo(1).length);
+    }
+}
@@ -0,0 +1,93 @@
+package graph.gen;
+
+import common.CsrGraph;
+import common.Graph;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import io.GraphIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.Metrics;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphGeneratorTest {
+
+    private static GraphGenerator.Spec spec() {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 5000; s.m = 20000; s.sccCount = 300; s.sizes = "powerlaw"; s.depth = 12; s.seed = 7;
+        return s;
+    }
+
+    @Test
+    public void plantsRequestedSccsAndDepth() {
+        CsrGraph g = GraphGenerator.build(spec());
+        TarjanSCC.Result r = new IterativeTarjanSCC().compute(g, new Metrics());
+        assertEquals(300, r.count());
+
+        // longest chain of the condensation DAG, counted in components
+        CsrGraph dag = CondensationGraph.build(g, r.compOf, r.count()).min;
+        int[] len = new int[dag.n()];
+        int best = 0;
+        for (int c = 0; c < dag.n(); c++) { // Tarjan ids are reverse topological: successors have smaller ids
+            len[c] = 1;
+            for (int e = dag.begin(c); e < dag.end(c); e++) len[c] = Math.max(len[c], 1 + len[dag.target(e)]);
+            best = Math.max(best, len[c]);
+        }
+        assertEquals(12, best);
+    }
+
+    @Test
+    public void emitsExactlyMEdges() {
+        // singleton-heavy power-law sizes and a high intra share make many draws miss
+        for (double intra : new double[]{0.0, 0.2, 0.9}) {
+            GraphGenerator.Spec s = spec();
+            s.intraShare = intra;
+            long[] count = {0};
+            GraphGenerator.generate(s, (u, v, w) -> count[0]++);
+            assertEquals(s.m, count[0], "intra " + intra);
+        }
+        GraphGenerator.Spec s = spec();
+        s.sccCount = s.n; s.depth = 1; // only singletons on one level: no edge can be placed
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.generate(s, (u, v, w) -> {}));
+    }
+
+    @Test
+    public void jsonOutputIsReproducible(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("g.json");
+        GraphGenerator.writeJson(spec(), f);
+        Graph a = GraphIO.load(f.toString()).graph;
+        Graph b = GraphGenerator.build(spec());
+        assertEquals(a.m(), b.m());
+        for (int e = 0; e < a.m(); e++) {
+            assertEquals(a.target(e), b.target(e));
+            assertEquals(a.weight(e), b.weight(e));
+        }
+    }
+
+    @Test
+    public void binaryOutputIsStreamedAndMatchesBuild(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("g.csrg");
+        GraphGenerator.write(spec(), f);
+        GraphIO.Loaded loaded = GraphIO.load(f.toString());
+        Graph a = loaded.graph, b = GraphGenerator.build(spec());
+        assertEquals(spec().source, loaded.source);
+        assertEquals(b.n(), a.n());
+        assertEquals(b.m(), a.m());
+        for (int u = 0; u < a.n(); u++) assertEquals(b.begin(u), a.begin(u));
+        for (int e = 0; e < a.m(); e++) {
+            assertEquals(b.target(e), a.target(e));
+            assertEquals(b.weight(e), a.weight(e));
+        }
+    }
+
+    @Test
+    public void trailingFlagWithoutValueIsRejected(@TempDir Path dir) {
+        String out = dir.resolve("g.json").toString();
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.main(new String[]{"--n", "100", "--out", out, "--seed"}));
+    }
+}
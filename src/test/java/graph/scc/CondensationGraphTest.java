@@ -0,0 +1,36 @@
+package graph.scc;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CondensationGraphTest {
+
+    @Test
+    public void keepsMinAndMaxWeightPerComponentPair() {
+        // {0,1} cycle, {2,3} cycle, three parallel links between them with weights 5, 2, 9
+        DirectedGraph g = new DirectedGraph(5);
+        g.addEdge(0,1,1); g.addEdge(1,0,1);
+        g.addEdge(2,3,1); g.addEdge(3,2,1);
+        g.addEdge(0,2,5); g.addEdge(1,3,2); g.addEdge(1,2,9);
+        g.addEdge(3,4,7);
+
+        TarjanSCC.Result r = new TarjanSCC().compute(g, new Metrics());
+        CondensationGraph.Result dags = CondensationGraph.build(g, r.compOf, r.count());
+        CsrGraph min = dags.min, max = dags.max;
+
+        assertEquals(3, min.n());
+        assertEquals(2, min.m());              // duplicates collapsed, intra-SCC edges dropped
+        int a = r.compOf[0], b = r.compOf[2], c = r.compOf[4];
+        assertEquals(1, min.outDegree(a));
+        int e = min.begin(a);
+        assertEquals(b, min.target(e));
+        assertEquals(2, min.weight(e));
+        assertEquals(9, max.weight(e));        // same edge id in both DAGs
+        assertEquals(c, max.target(max.begin(b)));
+        assertEquals(7, max.weight(max.begin(b)));
+    }
+}
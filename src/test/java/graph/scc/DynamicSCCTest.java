@@ -0,0 +1,90 @@
+package graph.scc;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicSCCTest {
+
+    @Test
+    public void mergesOnCycleAndSplitsOnDeletion() {
+        DirectedGraph g = new DirectedGraph(4);
+        g.addEdge(0, 1, 2); g.addEdge(1, 2, 3); g.addEdge(2, 3, 4);
+        Metrics m = new Metrics();
+        DynamicSCC d = new DynamicSCC(g, m);
+        assertEquals(4, d.count());
+
+        d.addEdge(3, 1, 7);                        // closes 1→2→3→1
+        assertEquals(2, d.count());
+        assertEquals(d.compOf(1), d.compOf(3));
+        CondensationGraph.Result c = d.condensation();
+        assertEquals(1, c.min.m());
+        assertEquals(2, c.min.weight(0));
+
+        assertTrue(d.removeEdge(2, 3, 4));         // breaks the cycle again
+        assertEquals(4, d.count());
+        assertFalse(d.removeEdge(2, 3));
+        assertEquals(2, m.updates);
+        assertTrue(m.updateNanosMax > 0);
+    }
+
+    @Test
+    public void randomUpdatesMatchRecomputation() {
+        int n = 120;
+        Random rnd = new Random(11);
+        DirectedGraph g = new DirectedGraph(n);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            int[] e = {rnd.nextInt(n), rnd.nextInt(n), rnd.nextInt(20) - 5};
+            g.addEdge(e[0], e[1], e[2]);
+            edges.add(e);
+        }
+        DynamicSCC d = new DynamicSCC(g, new Metrics());
+        for (int step = 0; step < 600; step++) {
+            if (edges.isEmpty() || rnd.nextInt(100) < 55) {
+                int[] e = {rnd.nextInt(n), rnd.nextInt(n), rnd.nextInt(20) - 5};
+                d.addEdge(e[0], e[1], e[2]);
+                edges.add(e);
+            } else {
+                int[] e = edges.remove(rnd.nextInt(edges.size()));
+                assertTrue(d.removeEdge(e[0], e[1], e[2]));
+            }
+            if (step % 10 == 0) assertMatches(d);
+        }
+        assertMatches(d);
+    }
+
+    private static void assertMatches(DynamicSCC d) {
+        CsrGraph g = d.graph().csr();
+        TarjanSCC.Result ref = new IterativeTarjanSCC().compute(g, new Metrics());
+        TarjanSCC.Result got = d.components();
+        assertEquals(ref.count(), got.count());
+        // same partition: the dense ids must map one-to-one
+        int[] map = new int[ref.count()];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < g.n(); v++) {
+            int r = ref.compOf[v], c = got.compOf[v];
+            if (map[r] == -1) map[r] = c;
+            assertEquals(map[r], c);
+        }
+        // same pair summaries; dense ids are topological, so every edge goes forward
+        CondensationGraph.Result want = CondensationGraph.build(g, ref.compOf, ref.count());
+        CondensationGraph.Result have = d.condensation();
+        assertEquals(want.min.m(), have.min.m());
+        Map<Long, int[]> w = new HashMap<>();
+        for (int u = 0; u < want.min.n(); u++)
+            for (int e = want.min.begin(u); e < want.min.end(u); e++)
+                w.put(((long) map[u] << 32) | map[want.min.target(e)], new int[]{want.min.weight(e), want.max.weight(e)});
+        for (int u = 0; u < have.min.n(); u++)
+            for (int e = have.min.begin(u); e < have.min.end(u); e++) {
+                int v = have.min.target(e);
+                assertTrue(u < v);
+                assertArrayEquals(w.get(((long) u << 32) | v), new int[]{have.min.weight(e), have.max.weight(e)});
+            }
+    }
+}
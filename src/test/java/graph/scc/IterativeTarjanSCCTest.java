@@ -0,0 +1,40 @@
+package graph.scc;
+
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeTarjanSCCTest {
+
+    @Test
+    public void matchesRecursiveTarjanExactly() {
+        Random rnd = new Random(42);
+        DirectedGraph g = new DirectedGraph(300);
+        for (int i = 0; i < 700; i++) g.addEdge(rnd.nextInt(300), rnd.nextInt(300), 1 + rnd.nextInt(9));
+
+        Metrics mr = new Metrics(), mi = new Metrics();
+        TarjanSCC.Result r = new TarjanSCC().compute(g, mr);
+        TarjanSCC.Result it = new IterativeTarjanSCC().compute(g, mi);
+
+        assertArrayEquals(r.compOf, it.compOf);
+        assertEquals(r.components, it.components);
+        assertArrayEquals(r.compStart, it.compStart);
+        assertEquals(mr.dfsCalls, mi.dfsCalls);
+        assertEquals(mr.edgesVisited, mi.edgesVisited);
+    }
+
+    @Test
+    public void longCycleDoesNotOverflowStack() {
+        int n = 1_000_000;
+        DirectedGraph g = new DirectedGraph(n, n);
+        for (int v = 0; v < n; v++) g.addEdge(v, (v + 1) % n, 1);
+
+        TarjanSCC.Result res = new IterativeTarjanSCC().compute(g, new Metrics());
+        assertEquals(1, res.count());
+        assertEquals(n, res.size(0));
+    }
+}
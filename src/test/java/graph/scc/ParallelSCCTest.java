@@ -0,0 +1,74 @@
+package graph.scc;
+
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSCCTest {
+
+    // Same partition as Tarjan (ids may differ): u,v together in one iff together in the other
+    private static void assertSamePartition(TarjanSCC.Result a, TarjanSCC.Result b) {
+        assertEquals(a.count(), b.count());
+        int[] map = new int[a.count()];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < a.compOf.length; v++) {
+            int ca = a.compOf[v], cb = b.compOf[v];
+            if (map[ca] == -1) map[ca] = cb;
+            assertEquals(map[ca], cb, "vertex " + v);
+        }
+    }
+
+    @Test
+    public void smallGraphMatchesTarjan() {
+        DirectedGraph g = new DirectedGraph(6);
+        g.addEdge(0,1,1); g.addEdge(1,2,1); g.addEdge(2,0,1);
+        g.addEdge(3,4,1); g.addEdge(4,5,1); g.addEdge(5,4,1);
+        assertSamePartition(new TarjanSCC().compute(g, new Metrics()), new ParallelSCC().compute(g, new Metrics()));
+    }
+
+    @Test
+    public void largeRandomGraphMatchesTarjanOnFourThreads() {
+        Random rnd = new Random(7);
+        int n = 60_000;
+        DirectedGraph g = new DirectedGraph(n, 3 * n);
+        for (int i = 0; i < 2 * n; i++) g.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1); // giant SCC
+        for (int i = 0; i < n; i++) {                                                 // plus small cycles
+            int u = rnd.nextInt(n - 1);
+            g.addEdge(u, u + 1, 1);
+            g.addEdge(u + 1, u, 1);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TarjanSCC.Result par = new ParallelSCC(pool).compute(g, new Metrics());
+            assertSamePartition(new IterativeTarjanSCC().compute(g, new Metrics()), par);
+            assertEquals(n, par.members.length);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void manySmallSccsAreSettledByColoring() {
+        // 3-cycles on consecutive ids plus forward edges: no giant SCC, more than the serial cutoff
+        Random rnd = new Random(11);
+        int n = 150_000;
+        DirectedGraph g = new DirectedGraph(n, 2 * n);
+        for (int v = 0; v < n; v += 3) { g.addEdge(v, v + 1, 1); g.addEdge(v + 1, v + 2, 1); g.addEdge(v + 2, v, 1); }
+        for (int i = 0; i < n; i++) {
+            int u = rnd.nextInt(n), v = rnd.nextInt(n);
+            g.addEdge(Math.min(u, v), Math.max(u, v), 1);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TarjanSCC.Result par = new ParallelSCC(pool).compute(g, new Metrics());
+            assertSamePartition(new IterativeTarjanSCC().compute(g, new Metrics()), par);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
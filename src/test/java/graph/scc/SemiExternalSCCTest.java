@@ -0,0 +1,52 @@
+package graph.scc;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import common.EdgeStream;
+import graph.gen.GraphGenerator;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemiExternalSCCTest {
+
+    private static void assertSamePartition(TarjanSCC.Result a, TarjanSCC.Result b) {
+        assertEquals(a.count(), b.count());
+        int[] map = new int[a.count()];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < a.compOf.length; v++) {
+            int ca = a.compOf[v], cb = b.compOf[v];
+            if (map[ca] == -1) map[ca] = cb;
+            assertEquals(map[ca], cb, "vertex " + v);
+        }
+    }
+
+    @Test
+    public void matchesTarjanWithAndWithoutInMemoryFinish() throws Exception {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 3000; s.m = 12_000; s.sccCount = 150; s.depth = 12; s.seed = 5;
+        CsrGraph g = GraphGenerator.build(s);
+        TarjanSCC.Result expected = new IterativeTarjanSCC().compute(g, new Metrics());
+        // 0 → pure streaming (trim + coloring passes only); m/2 → streaming then Tarjan; default → Tarjan at once
+        for (long budget : new long[]{0, g.m() / 2, SemiExternalSCC.DEFAULT_MEMORY_EDGES}) {
+            SemiExternalSCC sx = new SemiExternalSCC(budget);
+            TarjanSCC.Result r = sx.compute(EdgeStream.of(g), new Metrics());
+            assertSamePartition(expected, r);
+            assertTrue(sx.passes() >= 2, "budget " + budget);
+            for (int c = 0; c < r.count(); c++) assertEquals(c, r.compOf[r.members[r.compStart[c]]]);
+            for (int c = 1; c < r.count(); c++) assertTrue(r.members[r.compStart[c - 1]] < r.members[r.compStart[c]]); // ids by smallest vertex
+        }
+    }
+
+    @Test
+    public void selfLoopsAndIsolatedVerticesAreSingletons() throws Exception {
+        DirectedGraph g = new DirectedGraph(5);
+        g.addEdge(0, 0, 1); g.addEdge(1, 2, 1); g.addEdge(2, 1, 1); g.addEdge(2, 3, 1);
+        TarjanSCC.Result r = new SemiExternalSCC(0).compute(EdgeStream.of(g), new Metrics());
+        assertEquals(4, r.count());
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3}, r.compOf);
+    }
+}
@@ -0,0 +1,60 @@
+package graph.topo;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTopologicalSortTest {
+
+    // Random DAG with edges only from lower to higher ids, wide enough for parallel levels
+    private static CsrGraph wideDag(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        DirectedGraph g = new DirectedGraph(n, m);
+        for (int i = 0; i < m; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a != b) g.addEdge(Math.min(a, b), Math.max(a, b), 1);
+        }
+        return g.csr();
+    }
+
+    @Test
+    public void levelsAreWavesAndIndependentOfThreadCount() {
+        CsrGraph g = wideDag(200_000, 400_000, 1);
+        ForkJoinPool single = new ForkJoinPool(1), pool = new ForkJoinPool(4);
+        ParallelTopologicalSort.Result seq, par;
+        try {
+            seq = new ParallelTopologicalSort(single).sort(g, new Metrics());
+            par = new ParallelTopologicalSort(pool).sort(g, new Metrics());
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+        assertArrayEquals(seq.order, par.order);
+        assertArrayEquals(seq.levelStart, par.levelStart);
+        assertTrue(par.width(0) > 8192); // WHY: makes sure the parallel expansion was exercised
+
+        int[] lv = par.levelOf();
+        boolean[] hasPrevLevelPred = new boolean[g.n()];
+        for (int u = 0; u < g.n(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                int v = g.target(e);
+                assertTrue(lv[u] < lv[v]);
+                if (lv[u] == lv[v] - 1) hasPrevLevelPred[v] = true;
+            }
+        for (int v = 0; v < g.n(); v++) assertEquals(lv[v] > 0, hasPrevLevelPred[v]);
+        assertEquals(g.n(), par.order.length);
+    }
+
+    @Test
+    public void rejectsCycles() {
+        DirectedGraph g = new DirectedGraph(3);
+        g.addEdge(0, 1, 1); g.addEdge(1, 2, 1); g.addEdge(2, 1, 1);
+        assertThrows(IllegalStateException.class, () -> new ParallelTopologicalSort().sort(g, new Metrics()));
+    }
+}
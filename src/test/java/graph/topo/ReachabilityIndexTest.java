@@ -0,0 +1,75 @@
+package graph.topo;
+
+import common.DirectedGraph;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachabilityIndexTest {
+
+    private static DirectedGraph randomDag(int n, int m, Random rnd) {
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n - 1);
+            g.addEdge(u, u + 1 + rnd.nextInt(Math.min(8, n - u - 1)), 1);
+        }
+        return g;
+    }
+
+    private static boolean[] bfs(DirectedGraph g, int s) {
+        boolean[] seen = new boolean[g.n()];
+        ArrayDeque<Integer> q = new ArrayDeque<>(List.of(s));
+        seen[s] = true;
+        while (!q.isEmpty()) {
+            int u = q.poll();
+            for (int e = g.begin(u); e < g.end(u); e++)
+                if (!seen[g.target(e)]) { seen[g.target(e)] = true; q.add(g.target(e)); }
+        }
+        return seen;
+    }
+
+    @Test
+    public void bothModesMatchBfsOnRandomDags() {
+        Random rnd = new Random(11);
+        for (int round = 0; round < 15; round++) {
+            int n = 30 + rnd.nextInt(150);
+            DirectedGraph g = randomDag(n, 2 * n, rnd);
+            ReachabilityIndex closure = new ReachabilityIndex(g, null, Long.MAX_VALUE, 0, round, new Metrics());
+            ReachabilityIndex intervals = new ReachabilityIndex(g, null, 0, 1 + round % 4, round, new Metrics());
+            assertEquals(ReachabilityIndex.Mode.CLOSURE, closure.mode());
+            assertEquals(ReachabilityIndex.Mode.INTERVALS, intervals.mode());
+            for (int u = 0; u < n; u++) {
+                boolean[] expected = bfs(g, u);
+                for (int v = 0; v < n; v++) {
+                    assertEquals(expected[v], closure.reaches(u, v), "closure " + u + "->" + v);
+                    assertEquals(expected[v], intervals.reaches(u, v), "intervals " + u + "->" + v);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void taskQueriesGoThroughComponents() {
+        // {0,1} cycle → 2 → {3,4} cycle; 5 isolated
+        DirectedGraph g = new DirectedGraph(6);
+        g.addEdge(0, 1, 1); g.addEdge(1, 0, 1); g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1); g.addEdge(3, 4, 1); g.addEdge(4, 3, 1);
+        TarjanSCC.Result scc = new IterativeTarjanSCC().compute(g, new Metrics());
+        CondensationGraph.Result dags = CondensationGraph.build(g, scc.compOf, scc.count());
+        for (long budget : new long[]{Long.MAX_VALUE, 0}) {
+            ReachabilityIndex idx = new ReachabilityIndex(dags.min, null, budget, 2, 5L, new Metrics());
+            assertTrue(idx.reachesTask(scc.compOf, 1, 0));
+            assertTrue(idx.reachesTask(scc.compOf, 0, 4));
+            assertFalse(idx.reachesTask(scc.compOf, 4, 2));
+            assertFalse(idx.reachesTask(scc.compOf, 5, 0));
+            assertFalse(idx.reachesTask(scc.compOf, 0, 5));
+            assertTrue(idx.bytes() > 0);
+        }
+    }
+}
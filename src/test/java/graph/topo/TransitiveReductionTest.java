@@ -0,0 +1,89 @@
+package graph.topo;
+
+import common.CsrGraph;
+import common.DirectedGraph;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransitiveReductionTest {
+
+    // Random DAG without duplicate edges, edges from lower to higher ids
+    private static CsrGraph randomDag(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Set<Long> seen = new HashSet<>();
+        DirectedGraph g = new DirectedGraph(n, m);
+        for (int i = 0; i < m; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a == b) continue;
+            int u = Math.min(a, b), v = Math.max(a, b);
+            if (seen.add((long) u * n + v)) g.addEdge(u, v, 1 + rnd.nextInt(9));
+        }
+        return g.csr();
+    }
+
+    // Reference: u→v is redundant iff v is reachable from u without using that edge
+    private static boolean[] bruteForce(CsrGraph g) {
+        boolean[] redundant = new boolean[g.m()];
+        for (int u = 0; u < g.n(); u++)
+            for (int skip = g.begin(u); skip < g.end(u); skip++) {
+                boolean[] seen = new boolean[g.n()];
+                ArrayDeque<Integer> q = new ArrayDeque<>();
+                for (int e = g.begin(u); e < g.end(u); e++) if (e != skip) { seen[g.target(e)] = true; q.add(g.target(e)); }
+                while (!q.isEmpty()) {
+                    int x = q.poll();
+                    for (int e = g.begin(x); e < g.end(x); e++) if (!seen[g.target(e)]) { seen[g.target(e)] = true; q.add(g.target(e)); }
+                }
+                redundant[skip] = seen[g.target(skip)];
+            }
+        return redundant;
+    }
+
+    @Test
+    public void matchesBruteForceWithAnyBlockSize() {
+        for (long seed = 1; seed <= 10; seed++) {
+            CsrGraph g = randomDag(150 + (int) seed * 20, 900, seed);
+            boolean[] expected = bruteForce(g);
+            // 1 byte → one 64-column block per pass; default → a single pass
+            for (long budget : new long[]{1, TransitiveReduction.DEFAULT_MAX_BYTES}) {
+                Metrics mt = new Metrics();
+                TransitiveReduction.Result r = new TransitiveReduction(ForkJoinPool.commonPool(), budget).reduce(g, null, mt);
+                assertArrayEquals(expected, r.redundant, "seed " + seed + ", budget " + budget);
+                assertTrue(mt.getElapsedMillisDouble() >= r.levelSortMs); // the level sort is inside the timed span
+                int removed = 0;
+                for (boolean b : expected) if (b) removed++;
+                assertEquals(removed, r.removed);
+                assertEquals(g.m() - removed, r.reduced.m());
+            }
+        }
+    }
+
+    @Test
+    public void keepsReachabilityAndWavesAndIsThreadIndependent() {
+        CsrGraph g = randomDag(20_000, 80_000, 3);
+        ForkJoinPool single = new ForkJoinPool(1), pool = new ForkJoinPool(4);
+        TransitiveReduction.Result seq, par;
+        ParallelTopologicalSort.Result before, after;
+        try {
+            seq = new TransitiveReduction(single, 1 << 20).reduce(g, null, new Metrics());
+            par = new TransitiveReduction(pool, 1 << 20).reduce(g, null, new Metrics());
+            before = new ParallelTopologicalSort(single).sort(g, new Metrics());
+            after = new ParallelTopologicalSort(single).sort(par.reduced, new Metrics());
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+        assertArrayEquals(seq.redundant, par.redundant);
+        assertTrue(par.removed > 0);
+
+        // Same levels (waves) on the reduced DAG, and every removed edge is still implied
+        assertArrayEquals(before.levelOf(), after.levelOf());
+        ReachabilityIndex reach = new ReachabilityIndex(par.reduced);
+        for (int u = 0; u < g.n(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++) assertTrue(reach.reaches(u, g.target(e)));
+    }
+}
@@ -0,0 +1,85 @@
+package io;
+
+import common.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryGraphIOTest {
+
+    @Test
+    public void roundTripsJsonDatasetThroughMappedFile(@TempDir Path dir) throws Exception {
+        GraphIO.Loaded json = GraphIO.load("data/medium_2.json");
+        Path bin = dir.resolve("medium_2.csrg");
+        GraphConverter.convert(Path.of("data/medium_2.json"), bin);
+
+        assertTrue(BinaryGraphIO.isBinary(bin.toString()));
+        GraphIO.Loaded mapped = GraphIO.load(bin.toString()); // dispatches on the header magic
+        Graph a = json.graph, b = mapped.graph;
+        assertEquals(a.n(), b.n());
+        assertEquals(a.m(), b.m());
+        assertEquals(json.source, mapped.source);
+        assertEquals(json.weightModel, mapped.weightModel);
+        for (int u = 0; u < a.n(); u++) {
+            assertEquals(a.begin(u), b.begin(u));
+            assertEquals(a.end(u), b.end(u));
+        }
+        for (int e = 0; e < a.m(); e++) {
+            assertEquals(a.target(e), b.target(e));
+            assertEquals(a.weight(e), b.weight(e));
+        }
+    }
+
+    @Test
+    public void nodeWeightsSurviveJsonAndBinary(@TempDir Path dir) throws Exception {
+        Path json = dir.resolve("node.json");
+        Files.writeString(json, "{\"directed\": true, \"n\": 3, \"weight_model\": \"node\", \"node_weights\": [4, 0, 7],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, {\"u\": 1, \"v\": 2, \"w\": 1}]}");
+        GraphIO.Loaded a = GraphIO.load(json.toString());
+        assertTrue(a.nodeWeighted());
+        assertArrayEquals(new int[]{4, 0, 7}, a.nodeWeights);
+
+        Path bin = dir.resolve("node.csrg");
+        GraphConverter.convert(json, bin);
+        GraphIO.Loaded b = GraphIO.load(bin.toString());
+        assertEquals("node", b.weightModel);
+        assertArrayEquals(a.nodeWeights, b.nodeWeights);
+        assertEquals(2, b.graph.m());
+
+        Path bad = dir.resolve("bad.json");
+        Files.writeString(bad, "{\"directed\": true, \"n\": 3, \"weight_model\": \"node\", \"node_weights\": [1], \"edges\": []}");
+        assertThrows(IllegalArgumentException.class, () -> GraphIO.load(bad.toString()));
+    }
+
+    @Test
+    public void rejectsCorruptCsrSections(@TempDir Path dir) throws Exception {
+        Path bin = dir.resolve("medium_2.csrg");
+        GraphConverter.convert(Path.of("data/medium_2.json"), bin);
+        byte[] good = Files.readAllBytes(bin);
+        int n = ByteBuffer.wrap(good, 12, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        int offsets = BinaryGraphIO.HEADER_BYTES, targets = offsets + 4 * (n + 1);
+
+        // load(): header and both ends of the offsets only
+        assertRejected(dir, good, 12, -1, false);               // negative n
+        assertRejected(dir, good, offsets, 1, false);           // offsets[0] != 0
+        assertRejected(dir, good, offsets + 4 * n, 0, false);   // offsets[n] != m
+        // verify(): the full scan
+        assertRejected(dir, good, offsets + 4, 1 << 20, true);  // offsets not monotonic
+        assertRejected(dir, good, targets, n, true);            // target out of range
+    }
+
+    private static void assertRejected(Path dir, byte[] good, int at, int value, boolean fullScan) throws Exception {
+        byte[] bad = good.clone();
+        ByteBuffer.wrap(bad).order(ByteOrder.LITTLE_ENDIAN).putInt(at, value);
+        Path p = Files.write(dir.resolve("bad.csrg"), bad);
+        if (!fullScan) { assertThrows(IllegalArgumentException.class, () -> BinaryGraphIO.load(p.toString())); return; }
+        Graph g = BinaryGraphIO.load(p.toString()).graph; // O(1) checks pass
+        assertThrows(IllegalArgumentException.class, () -> BinaryGraphIO.verify(g, p.toString()));
+    }
+}
@@ -0,0 +1,26 @@
+package io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvSinkTest {
+
+    @Test
+    public void appendsUnderMatchingHeaderAndRejectsAnotherOne(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("out/metrics.csv");
+        try (CsvSink s = new CsvSink(f, "a,b")) { s.writeRows(List.of("1,2")); }
+        try (CsvSink s = new CsvSink(f, "a,b")) { s.writeRows(List.of("3,4")); }
+        assertEquals(List.of("a,b", "1,2", "3,4"), Files.readAllLines(f));
+
+        // a new column must not be appended under the old header
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new CsvSink(f, "a,b,c"));
+        assertTrue(e.getMessage().contains("--fresh"));
+        assertEquals(List.of("a,b", "1,2", "3,4"), Files.readAllLines(f));
+    }
+}
@@ -0,0 +1,131 @@
+package main;
+
+import common.CsrGraph;
+import graph.gen.GraphGenerator;
+import graph.scc.CondensationGraph;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSortKahn;
+import graph.topo.TransitiveReduction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.Metrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisCacheTest {
+
+    private static CsrGraph graph(long seed) {
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = 2000; s.m = 8000; s.sccCount = 50; s.seed = seed;
+        return GraphGenerator.build(s);
+    }
+
+    private static AnalysisCache.Entry analyse(CsrGraph g) {
+        TarjanSCC.Result scc = new IterativeTarjanSCC().compute(g, new Metrics());
+        CondensationGraph.Result dags = CondensationGraph.build(g, scc.compOf, scc.count());
+        return new AnalysisCache.Entry(g.m(), scc, dags, TopologicalSortKahn.orderArray(dags.min, new Metrics()));
+    }
+
+    @Test
+    public void keyFollowsContentAndEngine() {
+        CsrGraph a = graph(1), b = graph(1), c = graph(2);
+        assertEquals(AnalysisCache.key(a, "iterative"), AnalysisCache.key(b, "iterative"));
+        assertNotEquals(AnalysisCache.key(a, "iterative"), AnalysisCache.key(c, "iterative"));
+        assertNotEquals(AnalysisCache.key(a, "iterative"), AnalysisCache.key(a, "parallel"));
+
+        int[] w = a.weights().clone();
+        w[0]++;
+        CsrGraph reweighted = new CsrGraph(a.n(), a.offsets(), a.targets(), w);
+        assertNotEquals(AnalysisCache.key(a, "iterative"), AnalysisCache.key(reweighted, "iterative"));
+    }
+
+    @Test
+    public void countsHitsAndEvictsLeastRecentlyUsed() throws Exception {
+        CsrGraph g1 = graph(1), g2 = graph(2), g3 = graph(3);
+        AnalysisCache.Entry e1 = analyse(g1), e2 = analyse(g2), e3 = analyse(g3);
+        AnalysisCache cache = new AnalysisCache(e1.bytes + e2.bytes + e3.bytes / 2, null);
+        assertNull(cache.get("a", g1));
+        cache.put("a", e1);
+        cache.put("b", e2);
+        assertSame(e1, cache.get("a", g1)); // a becomes most recent
+        cache.put("c", e3);                 // over budget → b goes
+        assertNull(cache.get("b", g2));
+        assertNotNull(cache.get("a", g1));
+        assertNotNull(cache.get("c", g3));
+        assertEquals(3, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.bytes() <= e1.bytes + e2.bytes + e3.bytes / 2);
+    }
+
+    @Test
+    public void persistsEntriesForWarmRestarts(@TempDir Path dir) throws Exception {
+        CsrGraph g = graph(4);
+        AnalysisCache.Entry e = analyse(g);
+        String key = AnalysisCache.key(g, "iterative");
+        new AnalysisCache(1 << 20, dir).put(key, e);
+
+        AnalysisCache warm = new AnalysisCache(1 << 20, dir);
+        AnalysisCache.Entry r = warm.get(key, g);
+        assertNotNull(r);
+        assertEquals(1, warm.diskHits());
+        assertArrayEquals(e.scc.compOf, r.scc.compOf);
+        assertArrayEquals(e.scc.members, r.scc.members);
+        assertArrayEquals(e.topo, r.topo);
+        assertEquals(e.scc.components, r.scc.components);
+        assertEquals(e.dags.max.m(), r.dags.max.m());
+        for (int x = 0; x < e.dags.min.m(); x++) {
+            assertEquals(e.dags.min.target(x), r.dags.min.target(x));
+            assertEquals(e.dags.min.weight(x), r.dags.min.weight(x));
+            assertEquals(e.dags.max.weight(x), r.dags.max.weight(x));
+        }
+        assertNull(warm.get("missing", g));
+    }
+
+    @Test
+    public void persistsTheReducedDag(@TempDir Path dir) throws Exception {
+        CsrGraph g = graph(6);
+        AnalysisCache.Entry base = analyse(g);
+        CsrGraph reduced = new TransitiveReduction().reduce(base.dags.min, null, new Metrics()).reduced;
+        AnalysisCache.Entry e = new AnalysisCache.Entry(g.m(), base.scc, base.dags, base.topo, reduced);
+        assertTrue(e.bytes > base.bytes);
+        new AnalysisCache(1 << 20, dir).put("k", e);
+
+        AnalysisCache.Entry r = new AnalysisCache(1 << 20, dir).get("k", g);
+        assertNotNull(r);
+        assertArrayEquals(reduced.offsets(), r.reduced.offsets());
+        assertArrayEquals(reduced.targets(), r.reduced.targets());
+        assertArrayEquals(reduced.weights(), r.reduced.weights());
+        assertNull(analyse(g).reduced);
+    }
+
+    @Test
+    public void rejectsEntriesWhoseShapeDiffersFromTheGraph(@TempDir Path dir) throws Exception {
+        CsrGraph g = graph(5);
+        new AnalysisCache(1 << 20, dir).put("k", analyse(g));
+        GraphGenerator.Spec s = new GraphGenerator.Spec();
+        s.n = g.n(); s.m = g.m() - 1; s.sccCount = 50; s.seed = 5;
+        CsrGraph other = GraphGenerator.build(s); // same n, one edge fewer: stands in for a colliding key
+        AnalysisCache warm = new AnalysisCache(1 << 20, dir);
+        assertNull(warm.get("k", other));
+        assertEquals(0, warm.diskHits());
+        assertNotNull(warm.get("k", g));
+    }
+
+    @Test
+    public void failedDiskWriteKeepsTheEntryInMemory(@TempDir Path dir) throws Exception {
+        Path cacheDir = dir.resolve("cache");
+        AnalysisCache cache = new AnalysisCache(1 << 20, cacheDir);
+        Files.delete(cacheDir);
+        Files.createFile(cacheDir); // writes under it now fail with an IOException
+        CsrGraph g = graph(7);
+        AnalysisCache.Entry e = analyse(g);
+        cache.put("k", e);
+        assertEquals(1, cache.writeErrors());
+        assertSame(e, cache.get("k", g));
+    }
+}
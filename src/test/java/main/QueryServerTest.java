@@ -0,0 +1,129 @@
+package main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graph.dagsp.LongDagShortestPaths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.Metrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryServerTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private QueryServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        server = new QueryServer("data/medium_2.json");
+        server.start(0);
+    }
+
+    @AfterEach
+    public void stop() { server.stop(); }
+
+    private HttpResponse<String> raw(String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode get(String path) throws Exception {
+        HttpResponse<String> r = raw(path);
+        assertEquals(200, r.statusCode(), r.body());
+        return JSON.readTree(r.body());
+    }
+
+    @Test
+    public void answersMatchDirectComputation() throws Exception {
+        QueryServer.Snapshot s = server.snapshot();
+        int n = s.graph.n();
+        for (int v = 0; v < n; v++) assertEquals(s.scc.compOf[v], get("/component?v=" + v).get("component").asInt());
+
+        for (int src = 0; src < n; src += 3) {
+            LongDagShortestPaths sp = new LongDagShortestPaths(s.dags.min, s.scc.compOf[src], null, null);
+            sp.run(new Metrics());
+            for (int t = 0; t < n; t++) {
+                JsonNode d = get("/path?source=" + src + "&target=" + t);
+                int ct = s.scc.compOf[t];
+                assertEquals(sp.reachable(ct), d.get("reachable").asBoolean());
+                assertEquals(sp.reachable(ct), get("/reaches?from=" + src + "&to=" + t).get("reaches").asBoolean());
+                if (sp.reachable(ct)) {
+                    assertEquals(sp.distTo(ct), d.get("distance").asLong());
+                    assertEquals(sp.pathArray(ct).length, d.get("components").size());
+                }
+            }
+        }
+        assertEquals(s.cpm.duration, get("/cpm").get("duration").asLong());
+        assertEquals(400, raw("/dist?source=0").statusCode());
+        assertEquals(400, raw("/component?v=" + n).statusCode());
+    }
+
+    @Test
+    public void reloadSwapsSnapshotWithoutFailingConcurrentReaders() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(pool.submit(() -> {
+                int ok = 0;
+                for (int i = 0; i < 50; i++) if (raw("/critical?source=" + (i % 5)).statusCode() == 200) ok++;
+                return ok;
+            }));
+        }
+        long before = get("/stats").get("version").asLong();
+        for (int i = 0; i < 5; i++) assertEquals(200, post("/reload").statusCode());
+        for (Future<Integer> f : readers) assertEquals(50, f.get().intValue());
+        pool.shutdown();
+
+        assertEquals(before + 5, get("/stats").get("version").asLong());
+        assertEquals(400, post("/reload?path=data/missing.json").statusCode());
+        assertEquals("data/medium_2.json", get("/stats").get("dataset").asText()); // failed reload keeps the old snapshot
+    }
+
+    @Test
+    public void memoIsBoundedByBytes() {
+        QueryServer.Memo<String> memo = new QueryServer.Memo<>(1000, 300);
+        for (int k = 0; k < 10; k++) memo.put(k, "r" + k);
+        assertEquals(3, memo.size());
+        assertEquals(900, memo.bytes());
+        assertNull(memo.get(6));
+        assertEquals("r9", memo.get(9));
+        memo.put(9, "again"); // replacing a key does not grow the total
+        assertEquals(900, memo.bytes());
+
+        QueryServer.Memo<String> huge = new QueryServer.Memo<>(100, 300);
+        huge.put(1, "x");
+        assertEquals(0, huge.size());
+    }
+
+    @Test
+    public void reloadIsPostOnlyAndConfinedToTheDataDirectory() throws Exception {
+        long before = get("/stats").get("version").asLong();
+        HttpResponse<String> r = raw("/reload");
+        assertEquals(405, r.statusCode());
+        assertEquals("POST", r.headers().firstValue("Allow").orElse(""));
+        assertEquals(405, post("/stats").statusCode());
+        for (String path : new String[]{"pom.xml", "data/../pom.xml", "/etc/passwd", "data"}) {
+            r = post("/reload?path=" + path);
+            assertEquals(400, r.statusCode(), path);
+            assertFalse(r.body().contains("Exception"), r.body());
+        }
+        assertEquals(before, get("/stats").get("version").asLong());
+
+        assertEquals(200, post("/reload?path=data/small_1.json").statusCode());
+        assertTrue(get("/stats").get("dataset").asText().endsWith("small_1.json"));
+    }
+}
@@ -0,0 +1,65 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void histogramPercentilesStayWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        Random rnd = new Random(1);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(rnd.nextDouble() * Math.log(5e9)); // 1 ns .. 5 s, log-uniform
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertEquals(exact, h.percentile(q), Math.max(1, exact * 0.035), "q=" + q);
+        }
+        assertEquals(values[values.length - 1], h.max());
+        assertEquals(values.length, h.count());
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (long v : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int i = LatencyHistogram.index(v);
+            assertTrue(LatencyHistogram.lowerBound(i) <= v, "v=" + v);
+            if (v < Long.MAX_VALUE / 2) assertTrue(LatencyHistogram.lowerBound(i + 1) > v, "v=" + v);
+        }
+    }
+
+    @Test
+    public void concurrentPublishersAreSummedExactly() throws Exception {
+        MetricsRegistry reg = new MetricsRegistry();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> fs = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            fs.add(pool.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Metrics m = new Metrics();
+                    m.start();
+                    m.relaxations = 3_000_000_000L; // past the int range
+                    m.edgesVisited = 1;
+                    m.stop();
+                    reg.record("phase", m);
+                }
+            }));
+        }
+        for (Future<?> f : fs) f.get();
+        pool.shutdown();
+
+        MetricsRegistry.Phase p = reg.phase("phase");
+        assertEquals(4000, p.runs());
+        assertEquals(4000, p.edgesVisited());
+        assertEquals(4000L * 3_000_000_000L, p.relaxations());
+        assertTrue(reg.report().contains("phase"));
+    }
+}